@@ -4,6 +4,7 @@ import io.kestra.core.exceptions.KestraRuntimeException;
 import io.kestra.core.plugins.DefaultPluginRegistry;
 import io.kestra.core.plugins.PluginRegistry;
 import io.kestra.core.plugins.serdes.PluginDeserializer;
+import io.kestra.core.storages.CachedStorage;
 import io.kestra.core.storages.StorageInterface;
 import io.kestra.core.storages.StorageInterfaceFactory;
 import io.micronaut.context.annotation.Bean;
@@ -33,6 +34,9 @@ public class KestraBeansFactory {
     @Inject
     StorageConfig storageConfig;
 
+    @Inject
+    CachedStorage.Configuration storageCacheConfig;
+
     @Value("${kestra.storage.type}")
     Optional<String> storageType;
 
@@ -51,7 +55,9 @@ public class KestraBeansFactory {
             , KESTRA_STORAGE_TYPE_CONFIG,
             StorageInterfaceFactory.getLoggableStorageIds(pluginRegistry)
         )));
-        return StorageInterfaceFactory.make(pluginRegistry, pluginId, storageConfig.getStorageConfig(pluginId), validator);
+        StorageInterface storageInterface = StorageInterfaceFactory.make(pluginRegistry, pluginId, storageConfig.getStorageConfig(pluginId), validator);
+
+        return storageCacheConfig.getEnabled() ? new CachedStorage(storageInterface, storageCacheConfig) : storageInterface;
     }
 
     @ConfigurationProperties("kestra")
@@ -16,12 +16,19 @@ import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
 @Singleton
 @Slf4j
 public class MetricRegistry {
     public final static String METRIC_WORKER_JOB_PENDING_COUNT = "worker.job.pending";
     public final static String METRIC_WORKER_JOB_RUNNING_COUNT = "worker.job.running";
     public final static String METRIC_WORKER_JOB_THREAD_COUNT = "worker.job.thread";
+    public final static String METRIC_WORKER_JOB_WAIT_DURATION = "worker.job.wait.duration";
+    public final static String METRIC_WORKER_RESULT_BATCH_SIZE = "worker.result.batch.size";
     public final static String METRIC_WORKER_RUNNING_COUNT = "worker.running.count";
     public final static String METRIC_WORKER_QUEUED_DURATION = "worker.queued.duration";
     public final static String METRIC_WORKER_STARTED_COUNT = "worker.started.count";
@@ -39,9 +46,14 @@ public class MetricRegistry {
     public final static String EXECUTOR_TASKRUN_ENDED_COUNT = "executor.taskrun.ended.count";
     public final static String EXECUTOR_TASKRUN_ENDED_DURATION = "executor.taskrun.ended.duration";
     public final static String EXECUTOR_WORKERTASKRESULT_COUNT = "executor.workertaskresult.count";
+    public final static String EXECUTOR_WORKERTASKRESULT_COALESCED_COUNT = "executor.workertaskresult.coalesced.count";
     public final static String EXECUTOR_EXECUTION_STARTED_COUNT = "executor.execution.started.count";
     public final static String EXECUTOR_EXECUTION_END_COUNT = "executor.execution.end.count";
     public final static String EXECUTOR_EXECUTION_DURATION = "executor.execution.duration";
+    public final static String EXECUTOR_LANE_DEPTH_COUNT = "executor.lane.depth";
+    public final static String EXECUTOR_STATE_CACHE_COUNT = "executor.state.cache.count";
+    public final static String EXECUTOR_FLOW_CACHE_COUNT = "executor.flow.cache.count";
+    public final static String EXECUTOR_STAGE_DURATION = "executor.stage.duration";
 
     public final static String METRIC_INDEXER_REQUEST_COUNT = "indexer.request.count";
     public final static String METRIC_INDEXER_REQUEST_DURATION = "indexer.request.duration";
@@ -63,6 +75,15 @@ public class MetricRegistry {
 
     public final static String JDBC_QUERY_DURATION = "jdbc.query.duration";
 
+    public final static String METRIC_QUEUE_PAYLOAD_ENCODED_SIZE = "queue.payload.encoded.size";
+    public final static String METRIC_QUEUE_PAYLOAD_JSON_SIZE = "queue.payload.json.size";
+    public final static String METRIC_QUEUE_FETCH_SIZE = "queue.fetch.size";
+    public final static String METRIC_QUEUE_DISPATCH_DURATION = "queue.dispatch.duration";
+    public final static String METRIC_QUEUE_LAG_COUNT = "queue.lag.count";
+    public final static String METRIC_QUEUE_LAG_AGE = "queue.lag.age";
+    public final static String METRIC_QUEUE_POLL_SIZE = "queue.poll.size";
+    public final static String METRIC_QUEUE_POLL_INTERVAL = "queue.poll.interval";
+
     public final static String TAG_TASK_TYPE = "task_type";
     public final static String TAG_TRIGGER_TYPE = "trigger_type";
     public final static String TAG_FLOW_ID = "flow_id";
@@ -71,6 +92,7 @@ public class MetricRegistry {
     public final static String TAG_ATTEMPT_COUNT = "attempt_count";
     public final static String TAG_WORKER_GROUP = "worker_group";
     public final static String TAG_TENANT_ID = "tenant_id";
+    public final static String TAG_STAGE = "stage";
 
     @Inject
     private MeterRegistry meterRegistry;
@@ -78,6 +100,8 @@ public class MetricRegistry {
     @Inject
     private MetricConfig metricConfig;
 
+    private final Map<Meter.Id, Object> sharedGauges = new ConcurrentHashMap<>();
+
     /**
      * Tracks a monotonically increasing value.
      *
@@ -103,6 +127,35 @@ public class MetricRegistry {
         return this.meterRegistry.gauge(metricName(name), Tags.of(tags), number);
     }
 
+    /**
+     * Register a gauge over a state object shared by all the callers with the same name and tags.
+     * <p>
+     * Unlike {@link #gauge(String, Number, String...)}, where a second registration with the same name and tags silently reports the
+     * number of the first one, and NaN once it's garbage collected, the state is created once and strongly referenced by the registry.
+     *
+     * @param name          Name of the gauge being registered.
+     * @param state         Creates the state object on the first registration.
+     * @param valueFunction Function that produces an instantaneous gauge value from the state object.
+     * @param tags          Sequence of dimensions for breaking down the name.
+     * @param <T>           The type of the state object.
+     * @return The state object shared by all the registrations with the same name and tags.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T sharedGauge(String name, Supplier<T> state, ToDoubleFunction<T> valueFunction, String... tags) {
+        Meter.Id id = new Meter.Id(metricName(name), Tags.of(tags), null, null, Meter.Type.GAUGE);
+
+        return (T) this.sharedGauges.computeIfAbsent(id, key -> {
+            T created = state.get();
+
+            Gauge.builder(key.getName(), created, valueFunction)
+                .tags(key.getTags())
+                .strongReference(true)
+                .register(this.meterRegistry);
+
+            return created;
+        });
+    }
+
     /**
      * Measures the time taken for short tasks and the count of these tasks.
      *
@@ -34,6 +34,7 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.chrono.ChronoZonedDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -105,6 +106,13 @@ public class Execution implements DeletedInterface, TenantInterface {
     @Nullable
     Instant scheduleDate;
 
+    // built on the first lookup, the task run list is never modified in place
+    @Getter(AccessLevel.NONE)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    AtomicReference<TaskRunIndex> taskRunIndex = new AtomicReference<>();
+
     /**
      * Factory method for constructing a new {@link Execution} object for the given {@link Flow}.
      *
@@ -179,7 +187,7 @@ public class Execution implements DeletedInterface, TenantInterface {
     }
 
     public Execution withState(State.Type state) {
-        return new Execution(
+        Execution execution = new Execution(
             this.tenantId,
             this.id,
             this.namespace,
@@ -198,22 +206,25 @@ public class Execution implements DeletedInterface, TenantInterface {
             this.metadata,
             this.scheduleDate
         );
+
+        // same task run list
+        execution.taskRunIndex.set(this.taskRunIndex.get());
+
+        return execution;
     }
 
     public Execution withTaskRun(TaskRun taskRun) throws InternalException {
-        ArrayList<TaskRun> newTaskRunList = new ArrayList<>(this.taskRunList);
+        TaskRunIndex index = this.taskRunIndex();
+        Integer position = index.positionsById.get(taskRun.getId());
 
-        boolean b = Collections.replaceAll(
-            newTaskRunList,
-            this.findTaskRunByTaskRunId(taskRun.getId()),
-            taskRun
-        );
-
-        if (!b) {
-            throw new IllegalStateException("Can't replace taskRun '" + taskRun.getId() + "' on execution'" + this.getId() + "'");
+        if (position == null) {
+            throw new InternalException("Can't find taskrun with taskrunId '" + taskRun.getId() + "' on execution '" + this.id + "' " + this.toStringState());
         }
 
-        return new Execution(
+        ArrayList<TaskRun> newTaskRunList = new ArrayList<>(this.taskRunList);
+        newTaskRunList.set(position, taskRun);
+
+        Execution execution = new Execution(
             this.tenantId,
             this.id,
             this.namespace,
@@ -232,6 +243,12 @@ public class Execution implements DeletedInterface, TenantInterface {
             this.metadata,
             this.scheduleDate
         );
+
+        // the task run ids and their positions are unchanged, and so are the values if the replaced task run has the same value
+        boolean sameValue = Objects.equals(this.taskRunList.get(position).getValue(), taskRun.getValue());
+        execution.taskRunIndex.set(sameValue ? index : index.withPositions());
+
+        return execution;
     }
 
     public Execution childExecution(String childExecutionId, List<TaskRun> taskRunList, State state) {
@@ -261,36 +278,49 @@ public class Execution implements DeletedInterface, TenantInterface {
             return Collections.emptyList();
         }
 
-        return this.taskRunList
+        return this.taskRunIndex().positionsByTaskId
+            .getOrDefault(id, Collections.emptyList())
             .stream()
-            .filter(taskRun -> taskRun.getTaskId().equals(id))
+            .map(this.taskRunList::get)
             .toList();
     }
 
     public TaskRun findTaskRunByTaskRunId(String id) throws InternalException {
-        Optional<TaskRun> find = (this.taskRunList == null ? Collections.<TaskRun>emptyList() : this.taskRunList)
-            .stream()
-            .filter(taskRun -> taskRun.getId().equals(id))
-            .findFirst();
+        TaskRun find = this.taskRunList == null ? null : this.taskRunByTaskRunId(id);
 
-        if (find.isEmpty()) {
+        if (find == null) {
             throw new InternalException("Can't find taskrun with taskrunId '" + id + "' on execution '" + this.id + "' " + this.toStringState());
         }
 
-        return find.get();
+        return find;
     }
 
     public TaskRun findTaskRunByTaskIdAndValue(String id, List<String> values) throws InternalException {
-        Optional<TaskRun> find = (this.taskRunList == null ? Collections.<TaskRun>emptyList() : this.taskRunList)
-            .stream()
-            .filter(taskRun -> taskRun.getTaskId().equals(id) && findParentsValues(taskRun, true).equals(values))
-            .findFirst();
+        Integer position = this.taskRunList == null ? null : this.taskRunIndex().positionsByTaskIdAndValues(this).get(new TaskIdAndValues(id, values));
 
-        if (find.isEmpty()) {
+        if (position == null) {
             throw new InternalException("Can't find taskrun with taskrunId '" + id + "' & value '" + values + "' on execution '" + this.id + "' " + this.toStringState());
         }
 
-        return find.get();
+        return this.taskRunList.get(position);
+    }
+
+    private TaskRun taskRunByTaskRunId(String id) {
+        Integer position = this.taskRunIndex().positionsById.get(id);
+
+        return position == null ? null : this.taskRunList.get(position);
+    }
+
+    private TaskRunIndex taskRunIndex() {
+        TaskRunIndex index = this.taskRunIndex.get();
+
+        if (index == null) {
+            // built twice at worst on concurrent lookups, both are the same
+            index = new TaskRunIndex(this.taskRunList == null ? Collections.emptyList() : this.taskRunList);
+            this.taskRunIndex.set(index);
+        }
+
+        return index;
     }
 
     /**
@@ -549,13 +579,10 @@ public class Execution implements DeletedInterface, TenantInterface {
             return true;
         }
 
-        TaskRun current = this.taskRunList
-            .stream()
-            .filter(r -> r.isSame(taskRun))
-            .findFirst()
-            .orElse(null);
+        // task run ids are unique, so only the one with the same id can be the same
+        TaskRun current = this.taskRunByTaskRunId(taskRun.getId());
 
-        if (current == null) {
+        if (current == null || !current.isSame(taskRun)) {
             return true;
         }
 
@@ -814,15 +841,11 @@ public class Execution implements DeletedInterface, TenantInterface {
         ArrayList<TaskRun> result = new ArrayList<>();
         boolean ended = false;
         while (!ended) {
-            final TaskRun finalTaskRun = taskRun;
-            Optional<TaskRun> find = this.taskRunList
-                .stream()
-                .filter(t -> t.getId().equals(finalTaskRun.getParentTaskRunId()))
-                .findFirst();
+            TaskRun find = taskRun.getParentTaskRunId() == null ? null : this.taskRunByTaskRunId(taskRun.getParentTaskRunId());
 
-            if (find.isPresent()) {
-                result.add(find.get());
-                taskRun = find.get();
+            if (find != null) {
+                result.add(find);
+                taskRun = find;
             } else {
                 ended = true;
             }
@@ -922,4 +945,60 @@ public class Execution implements DeletedInterface, TenantInterface {
 
         return crc32.getValue();
     }
+
+    /**
+     * Positions of the task runs in the task run list, by id, by task id, and by task id and values of the task run and its parents.
+     */
+    private static final class TaskRunIndex {
+        private final Map<String, Integer> positionsById;
+        private final Map<String, List<Integer>> positionsByTaskId;
+        private volatile Map<TaskIdAndValues, Integer> positionsByTaskIdAndValues;
+
+        private TaskRunIndex(List<TaskRun> taskRunList) {
+            Map<String, Integer> byId = HashMap.newHashMap(taskRunList.size());
+            Map<String, List<Integer>> byTaskId = new HashMap<>();
+
+            for (int i = 0; i < taskRunList.size(); i++) {
+                TaskRun taskRun = taskRunList.get(i);
+
+                byId.putIfAbsent(taskRun.getId(), i);
+                byTaskId.computeIfAbsent(taskRun.getTaskId(), k -> new ArrayList<>()).add(i);
+            }
+
+            this.positionsById = Collections.unmodifiableMap(byId);
+            this.positionsByTaskId = Collections.unmodifiableMap(byTaskId);
+        }
+
+        private TaskRunIndex(Map<String, Integer> positionsById, Map<String, List<Integer>> positionsByTaskId) {
+            this.positionsById = positionsById;
+            this.positionsByTaskId = positionsByTaskId;
+        }
+
+        /**
+         * An index for a task run list with the same ids at the same positions, the values are computed again if needed.
+         */
+        private TaskRunIndex withPositions() {
+            return new TaskRunIndex(this.positionsById, this.positionsByTaskId);
+        }
+
+        private Map<TaskIdAndValues, Integer> positionsByTaskIdAndValues(Execution execution) {
+            Map<TaskIdAndValues, Integer> index = this.positionsByTaskIdAndValues;
+
+            if (index == null) {
+                Map<TaskIdAndValues, Integer> byTaskIdAndValues = HashMap.newHashMap(execution.taskRunList.size());
+                for (int i = 0; i < execution.taskRunList.size(); i++) {
+                    TaskRun taskRun = execution.taskRunList.get(i);
+                    byTaskIdAndValues.putIfAbsent(new TaskIdAndValues(taskRun.getTaskId(), execution.findParentsValues(taskRun, true)), i);
+                }
+
+                index = Collections.unmodifiableMap(byTaskIdAndValues);
+                this.positionsByTaskIdAndValues = index;
+            }
+
+            return index;
+        }
+    }
+
+    private record TaskIdAndValues(String taskId, List<String> values) {
+    }
 }
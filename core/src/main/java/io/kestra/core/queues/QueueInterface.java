@@ -4,6 +4,7 @@ import io.kestra.core.exceptions.DeserializationException;
 import io.kestra.core.utils.Either;
 
 import java.io.Closeable;
+import java.util.List;
 import java.util.function.Consumer;
 
 public interface QueueInterface<T> extends Closeable {
@@ -19,6 +20,29 @@ public interface QueueInterface<T> extends Closeable {
 
     void emitAsync(String consumerGroup, T message) throws QueueException;
 
+    default void emit(List<T> messages) throws QueueException {
+        emit(null, messages);
+    }
+
+    /**
+     * Emit multiple messages at once, implementations can override it to write them in a single round-trip.
+     */
+    default void emit(String consumerGroup, List<T> messages) throws QueueException {
+        for (T message : messages) {
+            emit(consumerGroup, message);
+        }
+    }
+
+    default void emitAsync(List<T> messages) throws QueueException {
+        emitAsync(null, messages);
+    }
+
+    default void emitAsync(String consumerGroup, List<T> messages) throws QueueException {
+        for (T message : messages) {
+            emitAsync(consumerGroup, message);
+        }
+    }
+
     default void delete(T message) throws QueueException {
         delete(null, message);
     }
@@ -62,6 +62,8 @@ public class QueueService {
             return ((ExecutionQueued) object).uid();
         } else if (object.getClass() == ServiceInstance.class) {
             return ((ServiceInstance) object).id();
+        } else if (object.getClass() == ConcurrencyLimit.class) {
+            return ((ConcurrencyLimit) object).uid();
         } else {
             throw new IllegalArgumentException("Unknown type '" + object.getClass().getName() + "'");
         }
@@ -8,6 +8,7 @@ import jakarta.annotation.PreDestroy;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 
 /**
  * Interface for consuming the {@link WorkerJob} queue.
@@ -16,6 +17,13 @@ public interface WorkerJobQueueInterface extends Closeable {
 
     Runnable receive(String consumerGroup, Class<?> queueType, Consumer<Either<WorkerJob, DeserializationException>> consumer);
 
+    /**
+     * Receive at most as many jobs as the capacity of the consumer, implementations not supporting it receive all the jobs available.
+     */
+    default Runnable receive(String consumerGroup, Class<?> queueType, IntSupplier capacity, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
+        return receive(consumerGroup, queueType, consumer);
+    }
+
     /**
      * Closes any resources used for the queue consumption.
      */
@@ -34,6 +34,9 @@ public abstract class AbstractWorkerThread extends Thread {
 
     private final ClassLoader classLoader;
 
+    // the thread running the job: this thread, or a virtual thread when started with startVirtual()
+    private volatile Thread runner = this;
+
     public AbstractWorkerThread(RunContext runContext, String type, ClassLoader classLoader) {
         super("WorkerThread");
         this.setUncaughtExceptionHandler(this::exceptionHandler);
@@ -64,6 +67,36 @@ public abstract class AbstractWorkerThread extends Thread {
 
     protected abstract void doRun() throws Exception;
 
+    /**
+     * Run the job on a new virtual thread instead of starting this thread, {@link #interrupt()} is then applied to the virtual thread.
+     */
+    public void startVirtual() {
+        Thread thread = Thread.ofVirtual()
+            .name(this.getName())
+            .uncaughtExceptionHandler(this::exceptionHandler)
+            .unstarted(this);
+
+        this.runner = thread;
+        thread.start();
+    }
+
+    /**
+     * Wait for the thread running the job to end.
+     */
+    public void joinRunner() throws InterruptedException {
+        this.runner.join();
+    }
+
+    @Override
+    public void interrupt() {
+        Thread runner = this.runner;
+        if (runner == this) {
+            super.interrupt();
+        } else {
+            runner.interrupt();
+        }
+    }
+
     /**
      * Signals to the job executed by this worker thread to stop.
      *
@@ -91,7 +124,7 @@ public abstract class AbstractWorkerThread extends Thread {
 
         // When we arrive here, the thread run() method may be ended but the thread "in the stopping process".
         // So we don't interrupt if the shutdownLatch is 0 as this means the run() method is done or if the thread is no more alive.
-        if (shutdownLatch.getCount() > 0 && this.isAlive()) {
+        if (shutdownLatch.getCount() > 0 && this.runner.isAlive()) {
             this.interrupt();
         }
     }
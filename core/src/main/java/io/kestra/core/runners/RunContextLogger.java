@@ -294,14 +294,12 @@ public class RunContextLogger implements Supplier<org.slf4j.Logger> {
         protected void append(ILoggingEvent e) {
             e = this.transform(e);
 
-            logEntries(e, logEntry)
-                .forEach(log -> {
-                    try {
-                        logQueue.emitAsync(log);
-                    } catch (QueueException ex) {
-                        // silently do nothing
-                    }
-                });
+            try {
+                // a multi-line event produces several entries, they are emitted together
+                logQueue.emitAsync(logEntries(e, logEntry));
+            } catch (QueueException ex) {
+                // silently do nothing
+            }
         }
     }
 
@@ -26,6 +26,7 @@ import io.kestra.core.utils.ExecutorsUtils;
 import io.kestra.core.utils.Hashing;
 import io.kestra.plugin.core.flow.WorkingDirectory;
 import io.micronaut.context.annotation.Parameter;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.core.annotation.Nullable;
@@ -48,6 +49,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -103,6 +105,21 @@ public class Worker implements Service, Runnable, AutoCloseable {
     @Inject
     private RunContextLoggerFactory runContextLoggerFactory;
 
+    // number of jobs claimed on top of the free threads, so a thread freed doesn't wait for the next poll,
+    // the number of threads by default when the scheduler is enabled
+    @Value("${kestra.worker.prefetch:0}")
+    private Integer prefetch;
+
+    @Inject
+    private WorkerJobScheduler.Configuration schedulerConfiguration;
+
+    private WorkerJobScheduler scheduler;
+
+    @Inject
+    private WorkerTaskResultSink.Configuration resultSinkConfiguration;
+
+    private WorkerTaskResultSink workerTaskResultSink;
+
     private final Set<String> killedExecution = ConcurrentHashMap.newKeySet();
 
     @Getter
@@ -132,6 +149,8 @@ public class Worker implements Service, Runnable, AutoCloseable {
     private final List<Runnable> receiveCancellations = new ArrayList<>();
 
     private final Integer numThreads;
+    private final boolean virtualThreads;
+    private final Semaphore permits;
     private final AtomicInteger pendingJobCount = new AtomicInteger(0);
     private final AtomicInteger runningJobCount = new AtomicInteger(0);
 
@@ -141,6 +160,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
      * @param workerId       The worker service ID.
      * @param numThreads     The worker num threads.
      * @param workerGroupKey The worker group (EE).
+     * @param virtualThreads Whether jobs run on virtual threads, {@code numThreads} is then the number of jobs running concurrently.
      */
     @Inject
     public Worker(
@@ -149,13 +169,22 @@ public class Worker implements Service, Runnable, AutoCloseable {
         @Nullable @Parameter String workerGroupKey,
         ApplicationEventPublisher<ServiceStateChangeEvent> eventPublisher,
         WorkerGroupService workerGroupService,
-        ExecutorsUtils executorsUtils
+        ExecutorsUtils executorsUtils,
+        @Value("${kestra.worker.virtual-threads:false}") boolean virtualThreads
     ) {
         this.id = workerId;
         this.numThreads = numThreads;
+        this.virtualThreads = virtualThreads;
         this.workerGroup = workerGroupService.resolveGroupFromKey(workerGroupKey);
         this.eventPublisher = eventPublisher;
-        this.executorService = executorsUtils.maxCachedThreadPool(numThreads, "worker");
+        if (virtualThreads) {
+            // one virtual thread per job, the jobs running concurrently are bounded by the permits
+            this.executorService = executorsUtils.virtualThreadPerTaskExecutor("worker");
+            this.permits = new Semaphore(numThreads);
+        } else {
+            this.executorService = executorsUtils.maxCachedThreadPool(numThreads, "worker");
+            this.permits = null;
+        }
         this.setState(ServiceState.CREATED);
     }
 
@@ -184,6 +213,13 @@ public class Worker implements Service, Runnable, AutoCloseable {
 
     @Override
     public void run() {
+        this.workerTaskResultSink = new WorkerTaskResultSink(
+            workerTaskResultQueue,
+            resultSinkConfiguration,
+            metricRegistry,
+            this.workerGroup == null ? new String[0] : new String[] { MetricRegistry.TAG_WORKER_GROUP, this.workerGroup }
+        );
+
         this.receiveCancellations.addFirst(this.executionKilledQueue.receive(executionKilled -> {
             if (executionKilled == null || !executionKilled.isLeft()) {
                 return;
@@ -214,17 +250,36 @@ public class Worker implements Service, Runnable, AutoCloseable {
                         .forEach(AbstractWorkerThread::kill);
                 }
             }
+
+            // the results of the killed tasks don't wait for their linger
+            this.workerTaskResultSink.flush();
         }));
 
+        if (schedulerConfiguration.getEnabled()) {
+            this.scheduler = new WorkerJobScheduler(schedulerConfiguration, numThreads, executorService, metricRegistry, workerGroup);
+
+            // without prefetch, the jobs are started as soon as they're claimed and the scheduler has nothing to choose from
+            if (this.prefetch <= 0) {
+                this.prefetch = numThreads;
+            }
+        }
+
         this.receiveCancellations.addFirst(this.workerJobQueue.receive(
             this.workerGroup,
             Worker.class,
+            this::capacity,
             either -> {
                 pendingJobCount.incrementAndGet();
 
-                executorService.execute(() -> {
-                    pendingJobCount.decrementAndGet();
+                Runnable job = () -> {
+                    if (!this.acquirePermit()) {
+                        pendingJobCount.decrementAndGet();
+                        return;
+                    }
+
+                    // counted as running first so the capacity never sees the job as gone
                     runningJobCount.incrementAndGet();
+                    pendingJobCount.decrementAndGet();
 
                     try {
                         if (either.isRight()) {
@@ -241,14 +296,52 @@ public class Worker implements Service, Runnable, AutoCloseable {
                         }
                     } finally {
                         runningJobCount.decrementAndGet();
+                        this.releasePermit();
                     }
+                };
 
-                });
+                if (this.scheduler != null) {
+                    this.scheduler.submit(either.isLeft() ? either.getLeft() : null, job);
+                } else {
+                    executorService.execute(job);
+                }
             }
         ));
         setState(ServiceState.RUNNING);
     }
 
+    /**
+     * The number of jobs this worker can claim: its free threads and the prefetch margin, minus the jobs claimed but not started yet.
+     * The jobs the scheduler holds back for their max in-flight are not counted, as the free threads can't run them.
+     */
+    @VisibleForTesting
+    int capacity() {
+        int blocked = this.scheduler == null ? 0 : Math.min(this.scheduler.blocked(), this.schedulerConfiguration.getMaxBlocked());
+
+        return this.numThreads + this.prefetch - this.pendingJobCount.get() - this.runningJobCount.get() + blocked;
+    }
+
+    private boolean acquirePermit() {
+        if (this.permits == null) {
+            return true;
+        }
+
+        try {
+            this.permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            // the worker is shutting down, the job is not started like the ones still queued in a thread pool
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void releasePermit() {
+        if (this.permits != null) {
+            this.permits.release();
+        }
+    }
+
     private void setState(final ServiceState state) {
         this.state.set(state);
         Map<String, Object> properties = new HashMap<>();
@@ -264,7 +357,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
                 if ("task".equals(type)) {
                     // try to deserialize the taskRun to fail it
                     var taskRun = MAPPER.treeToValue(json.get("taskRun"), TaskRun.class);
-                    this.workerTaskResultQueue.emit(new WorkerTaskResult(taskRun.fail()));
+                    this.workerTaskResultSink.emit(new WorkerTaskResult(taskRun.fail()));
                 } else if ("trigger".equals(type)) {
                     // try to deserialize the triggerContext to fail it
                     var triggerContext = MAPPER.treeToValue(json.get("triggerContext"), TriggerContext.class);
@@ -294,7 +387,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
                     workingDirectoryRunContext.logger().error("Failed preExecuteTasks on WorkingDirectory: {}", e.getMessage(), e);
                     workerTask = workerTask.fail();
                     try {
-                        this.workerTaskResultQueue.emit(new WorkerTaskResult(workerTask));
+                        this.workerTaskResultSink.emit(new WorkerTaskResult(workerTask));
                     } catch (QueueException ex) {
                         log.error("Unable to emit the worker task result for task {} taskrun {}", workerTask.getTask().getId(), workerTask.getTaskRun().getId(), e);
                     }
@@ -331,7 +424,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
                     workingDirectoryRunContext.logger().error("Failed postExecuteTasks on WorkingDirectory: {}", e.getMessage(), e);
                     workerTask = workerTask.fail();
                     try {
-                        this.workerTaskResultQueue.emit(new WorkerTaskResult(workerTask));
+                        this.workerTaskResultSink.emit(new WorkerTaskResult(workerTask));
                     } catch (QueueException ex) {
                         log.error("Unable to emit the worker task result for task {} taskrun {}", workerTask.getTask().getId(), workerTask.getTaskRun().getId(), e);
                     }
@@ -562,7 +655,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
 
             WorkerTaskResult workerTaskResult = new WorkerTaskResult(workerTask);
             try {
-                this.workerTaskResultQueue.emit(workerTaskResult);
+                this.workerTaskResultSink.emit(workerTaskResult);
             } catch (QueueException ex) {
                 log.error("Unable to emit the worker task result for task {} taskrun {}", workerTask.getTask().getId(), workerTask.getTaskRun().getId(), ex);
             }
@@ -585,7 +678,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
 
         workerTask = workerTask.withTaskRun(workerTask.getTaskRun().withState(RUNNING));
         try {
-            this.workerTaskResultQueue.emit(new WorkerTaskResult(workerTask));
+            this.workerTaskResultSink.emit(new WorkerTaskResult(workerTask));
         } catch (QueueException e) {
             log.error("Unable to emit the worker task result for task {} taskrun {}", workerTask.getTask().getId(), workerTask.getTaskRun().getId(), e);
         }
@@ -626,7 +719,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
             finalWorkerTask = finalWorkerTask.withTaskRun(finalWorkerTask.getTaskRun().withState(state));
 
             WorkerTaskResult workerTaskResult = new WorkerTaskResult(finalWorkerTask, dynamicWorkerResults);
-            this.workerTaskResultQueue.emit(workerTaskResult);
+            this.workerTaskResultSink.emit(workerTaskResult);
             return workerTaskResult;
         } catch (QueueException e) {
             // If there is a QueueException it can either be caused by the message limit or another queue issue.
@@ -640,7 +733,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
             RunContextLogger contextLogger = runContextLoggerFactory.create(workerTask.getTaskRun(), workerTask.getTask());
             contextLogger.logger().error("Unable to emit the worker task result to the queue: {}", e.getMessage(), e);
             try {
-                this.workerTaskResultQueue.emit(workerTaskResult);
+                this.workerTaskResultSink.emit(workerTaskResult);
             } catch (QueueException ex) {
                 log.error("Unable to emit the worker task result for task {} taskrun {}", workerTask.getTask().getId(), workerTask.getTaskRun().getId(), e);
             }
@@ -730,7 +823,7 @@ public class Worker implements Service, Runnable, AutoCloseable {
         WorkerTaskThread workerThread = new WorkerTaskThread(workerTask, task, runContext, metricRegistry);
 
         // emit attempts
-        this.workerTaskResultQueue.emit(new WorkerTaskResult(workerTask
+        this.workerTaskResultSink.emit(new WorkerTaskResult(workerTask
             .withTaskRun(
                 workerTask.getTaskRun()
                     .withAttempts(this.addAttempt(workerTask, builder.build()))
@@ -780,8 +873,12 @@ public class Worker implements Service, Runnable, AutoCloseable {
             synchronized (this) {
                 workerThreadReferences.add(workerThread);
             }
-            workerThread.start();
-            workerThread.join();
+            if (this.virtualThreads) {
+                workerThread.startVirtual();
+            } else {
+                workerThread.start();
+            }
+            workerThread.joinRunner();
             state = workerThread.getTaskState();
         } catch (InterruptedException e) {
             logger.error("Failed to join the Worker thread: {}", e.getMessage(), e);
@@ -960,6 +1057,10 @@ public class Worker implements Service, Runnable, AutoCloseable {
     }
 
     private void closeQueue() {
+        if (this.workerTaskResultSink != null) {
+            this.workerTaskResultSink.close();
+        }
+
         try {
             this.workerTaskResultQueue.close();
             this.workerTriggerResultQueue.close();
@@ -0,0 +1,218 @@
+package io.kestra.core.runners;
+
+import io.kestra.core.metrics.MetricRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.format.MapFormat;
+import io.micronaut.core.naming.conventions.StringConvention;
+import lombok.Getter;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted fair scheduling of the jobs claimed by a worker, between the namespaces or the tenants of their tasks.
+ * <p>
+ * Each namespace or tenant has its own queue, and the scheduler starts at most as many jobs as the worker has threads.
+ * The next job is taken from the queue which received the least service relative to its weight (stride scheduling),
+ * skipping the queues having reached their max in-flight jobs, so a namespace with a lot of tasks can't monopolize the worker.
+ * The triggers are scheduled in their own queue as they're not bound to a task run.
+ * <p>
+ * Only the jobs claimed by the worker are scheduled, so the worker claims jobs on top of its free threads for the scheduler to choose from.
+ * The jobs held back by the max in-flight of their queue are not counted in the capacity of the worker up to {@link Configuration#getMaxBlocked()},
+ * so a throttled namespace doesn't prevent the worker from claiming the jobs of the other ones.
+ */
+public class WorkerJobScheduler {
+    static final String DEFAULT = "_default";
+
+    private static final long STRIDE = 1L << 20;
+
+    private final Configuration configuration;
+    private final Executor executor;
+    private final MetricRegistry metricRegistry;
+    private final String[] tags;
+
+    private final Map<String, SubQueue> queues = new HashMap<>();
+    private int available;
+    private long virtualTime = 0;
+
+    public WorkerJobScheduler(Configuration configuration, int threads, Executor executor, MetricRegistry metricRegistry, @Nullable String workerGroup) {
+        this.configuration = configuration;
+        this.available = threads;
+        this.executor = executor;
+        this.metricRegistry = metricRegistry;
+        this.tags = workerGroup == null ? new String[0] : new String[]{MetricRegistry.TAG_WORKER_GROUP, workerGroup};
+    }
+
+    /**
+     * Queue a job, it's started once a thread is free and its queue is the next one to be served.
+     *
+     * @param workerJob the job, null if it can't be deserialized
+     * @param runnable  the processing of the job
+     */
+    public synchronized void submit(@Nullable WorkerJob workerJob, Runnable runnable) {
+        String key = this.key(workerJob);
+        SubQueue queue = this.queues.computeIfAbsent(key, SubQueue::new);
+
+        // an idle queue doesn't accumulate credit while it has no job waiting
+        if (queue.jobs.isEmpty()) {
+            queue.pass = Math.max(queue.pass, this.virtualTime);
+        }
+
+        queue.jobs.add(new Job(runnable, System.nanoTime()));
+
+        this.dispatch();
+    }
+
+    /**
+     * The number of jobs waiting to be started.
+     */
+    public synchronized int size() {
+        return this.queues.values().stream().mapToInt(queue -> queue.jobs.size()).sum();
+    }
+
+    /**
+     * The number of jobs waiting for their queue to be under its max in-flight, they can't be started even if a thread is free.
+     */
+    public synchronized int blocked() {
+        return this.queues.values().stream()
+            .filter(queue -> queue.inFlight >= queue.maxInFlight)
+            .mapToInt(queue -> queue.jobs.size())
+            .sum();
+    }
+
+    String key(@Nullable WorkerJob workerJob) {
+        if (workerJob instanceof WorkerTask workerTask) {
+            String key = switch (this.configuration.getBy()) {
+                case NAMESPACE -> workerTask.getTaskRun().getNamespace();
+                case TENANT -> workerTask.getTaskRun().getTenantId();
+            };
+
+            return key == null ? DEFAULT : key;
+        }
+
+        return DEFAULT;
+    }
+
+    private void dispatch() {
+        while (this.available > 0) {
+            SubQueue next = null;
+            for (SubQueue queue : this.queues.values()) {
+                if (!queue.jobs.isEmpty() && queue.inFlight < queue.maxInFlight && (next == null || queue.pass < next.pass)) {
+                    next = queue;
+                }
+            }
+
+            if (next == null) {
+                return;
+            }
+
+            Job job = next.jobs.poll();
+            this.virtualTime = next.pass;
+            next.pass += STRIDE / next.weight;
+            next.inFlight++;
+            this.available--;
+
+            next.waitDuration.record(System.nanoTime() - job.submitted, TimeUnit.NANOSECONDS);
+
+            SubQueue queue = next;
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        job.runnable.run();
+                    } finally {
+                        this.done(queue);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the worker is shutting down, the jobs left are resubmitted once it's gone
+                queue.jobs.addFirst(job);
+                queue.inFlight--;
+                this.available++;
+                return;
+            }
+        }
+    }
+
+    private synchronized void done(SubQueue queue) {
+        queue.inFlight--;
+        this.available++;
+
+        if (queue.jobs.isEmpty() && queue.inFlight == 0) {
+            this.queues.remove(queue.key);
+        }
+
+        this.dispatch();
+    }
+
+    private class SubQueue {
+        private final String key;
+        private final int weight;
+        private final int maxInFlight;
+        private final Timer waitDuration;
+
+        private final Deque<Job> jobs = new ArrayDeque<>();
+        private long pass;
+        private int inFlight = 0;
+
+        private SubQueue(String key) {
+            this.key = key;
+            this.weight = Math.max(1, configuration.getWeights().getOrDefault(key, configuration.getDefaultWeight()));
+
+            // the triggers are only limited when configured explicitly, a realtime trigger holds its thread for its whole life
+            Integer maxInFlight = key.equals(DEFAULT) ?
+                configuration.getMaxInFlight().get(key) :
+                configuration.getMaxInFlight().getOrDefault(key, configuration.getDefaultMaxInFlight());
+            this.maxInFlight = maxInFlight == null || maxInFlight <= 0 ? Integer.MAX_VALUE : maxInFlight;
+
+            this.waitDuration = metricRegistry.timer(
+                MetricRegistry.METRIC_WORKER_JOB_WAIT_DURATION,
+                ArrayUtils.addAll(
+                    tags,
+                    configuration.getBy() == By.TENANT ? MetricRegistry.TAG_TENANT_ID : MetricRegistry.TAG_NAMESPACE_ID,
+                    key
+                )
+            );
+        }
+    }
+
+    private record Job(Runnable runnable, long submitted) {
+    }
+
+    public enum By {
+        NAMESPACE,
+        TENANT
+    }
+
+    @ConfigurationProperties("kestra.worker.scheduler")
+    @Getter
+    public static class Configuration {
+        // disabled, the jobs are started in the order they're claimed
+        Boolean enabled = false;
+
+        By by = By.NAMESPACE;
+
+        Integer defaultWeight = 1;
+
+        // weight by namespace or tenant, a queue with a weight of 2 starts twice as many jobs as a queue with a weight of 1
+        @MapFormat(keyFormat = StringConvention.RAW, transformation = MapFormat.MapTransformation.FLAT)
+        Map<String, Integer> weights = new HashMap<>();
+
+        // no limit by default
+        Integer defaultMaxInFlight;
+
+        // max jobs running at the same time by namespace or tenant
+        @MapFormat(keyFormat = StringConvention.RAW, transformation = MapFormat.MapTransformation.FLAT)
+        Map<String, Integer> maxInFlight = new HashMap<>();
+
+        // max jobs held back by their max in-flight the worker claims on top of its capacity, as they're not available to other workers meanwhile
+        Integer maxBlocked = 100;
+    }
+}
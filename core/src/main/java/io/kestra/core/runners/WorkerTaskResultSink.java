@@ -0,0 +1,133 @@
+package io.kestra.core.runners;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueInterface;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Emit the worker task results of the worker, grouping the ones emitted during a short linger into a single queue write.
+ * <p>
+ * The first result of a batch waits for the linger, the others emitted meanwhile join it, and the batch is written
+ * by this first caller or as soon as it's full. Each caller still waits for its result to be written and receives its own error,
+ * so the results of a task run are written in order and a message too big only fails its own result.
+ * <p>
+ * With a linger of 0, the results are emitted one by one as before.
+ */
+public class WorkerTaskResultSink implements AutoCloseable {
+    private final QueueInterface<WorkerTaskResult> workerTaskResultQueue;
+    private final long linger;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSize;
+
+    private List<Entry> pending = new ArrayList<>();
+
+    public WorkerTaskResultSink(QueueInterface<WorkerTaskResult> workerTaskResultQueue, Configuration configuration, MetricRegistry metricRegistry, String... tags) {
+        this.workerTaskResultQueue = workerTaskResultQueue;
+        this.linger = configuration.getLinger().toNanos();
+        this.maxBatchSize = Math.max(1, configuration.getMaxBatchSize());
+        this.batchSize = metricRegistry.summary(MetricRegistry.METRIC_WORKER_RESULT_BATCH_SIZE, tags);
+    }
+
+    /**
+     * Emit a result, waiting for its batch to be written.
+     */
+    public void emit(WorkerTaskResult workerTaskResult) throws QueueException {
+        if (this.linger <= 0) {
+            this.workerTaskResultQueue.emit(workerTaskResult);
+            return;
+        }
+
+        Entry entry = new Entry(workerTaskResult, new CompletableFuture<>());
+        boolean first;
+        boolean full;
+        synchronized (this) {
+            first = this.pending.isEmpty();
+            this.pending.add(entry);
+            full = this.pending.size() >= this.maxBatchSize;
+        }
+
+        if (full) {
+            this.flush();
+        } else if (first) {
+            try {
+                Thread.sleep(Duration.ofNanos(this.linger));
+            } catch (InterruptedException e) {
+                // the worker is stopping, the batch is written right away
+                Thread.currentThread().interrupt();
+            }
+
+            this.flush();
+        }
+
+        try {
+            Uninterruptibles.getUninterruptibly(entry.written);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof QueueException queueException) {
+                throw queueException;
+            }
+
+            throw new QueueException("Unable to emit the worker task result", e.getCause());
+        }
+    }
+
+    /**
+     * Write the results waiting for their linger now.
+     */
+    public void flush() {
+        List<Entry> batch;
+        synchronized (this) {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+
+            batch = this.pending;
+            this.pending = new ArrayList<>();
+        }
+
+        this.batchSize.record(batch.size());
+
+        try {
+            this.workerTaskResultQueue.emit(batch.stream().map(Entry::workerTaskResult).toList());
+            batch.forEach(entry -> entry.written.complete(null));
+        } catch (QueueException e) {
+            // the batch is written atomically, retried one by one so only the results in error fail
+            batch.forEach(entry -> {
+                try {
+                    this.workerTaskResultQueue.emit(entry.workerTaskResult);
+                    entry.written.complete(null);
+                } catch (QueueException | RuntimeException ex) {
+                    entry.written.completeExceptionally(ex);
+                }
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(entry -> entry.written.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        this.flush();
+    }
+
+    private record Entry(WorkerTaskResult workerTaskResult, CompletableFuture<Void> written) {
+    }
+
+    @ConfigurationProperties("kestra.worker.result-batch")
+    @Getter
+    public static class Configuration {
+        // disabled by default, a few milliseconds are enough to group the results of the tasks ending together
+        Duration linger = Duration.ZERO;
+
+        Integer maxBatchSize = 100;
+    }
+}
@@ -0,0 +1,162 @@
+package io.kestra.core.services;
+
+import io.kestra.core.models.conditions.Condition;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.services.FlowTriggerService.FlowWithFlowTrigger;
+import io.kestra.plugin.core.condition.ExecutionFlowCondition;
+import io.kestra.plugin.core.condition.ExecutionNamespaceCondition;
+import io.kestra.plugin.core.condition.MultipleCondition;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * The flow triggers of the enabled flows, indexed by the states they listen to and by the flow or namespace their conditions are restricted to.
+ * <p>
+ * A trigger is indexed on the first of its conditions that is an {@link ExecutionFlowCondition} or an {@link ExecutionNamespaceCondition}
+ * with an equals or prefix comparison, as all its conditions must be valid.
+ * Otherwise, when all the conditions of its {@link MultipleCondition} are of these types, it's indexed on each of them,
+ * as a multiple condition only changes for the executions matching one of its conditions.
+ * The other triggers are candidates for all the executions in the states they listen to.
+ * <p>
+ * The index only narrows the triggers to evaluate: the candidates must still be validated with their conditions.
+ */
+public class FlowTriggerIndex {
+    private final List<FlowWithFlowTrigger> triggers;
+    private final Map<State.Type, Buckets> buckets = new EnumMap<>(State.Type.class);
+
+    public FlowTriggerIndex(List<FlowWithFlowTrigger> triggers) {
+        this.triggers = triggers;
+
+        for (int position = 0; position < triggers.size(); position++) {
+            io.kestra.plugin.core.trigger.Flow trigger = triggers.get(position).getTrigger();
+            List<Key> keys = keys(trigger);
+
+            for (State.Type state : trigger.getStates()) {
+                Buckets buckets = this.buckets.computeIfAbsent(state, k -> new Buckets());
+
+                if (keys == null) {
+                    buckets.others.add(position);
+                } else {
+                    for (Key key : keys) {
+                        buckets.add(key, position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The triggers that could create an execution for this execution, in the order of the flows.
+     */
+    public List<FlowWithFlowTrigger> candidates(Execution execution) {
+        Buckets buckets = this.buckets.get(execution.getState().getCurrent());
+        if (buckets == null) {
+            return List.of();
+        }
+
+        BitSet positions = new BitSet(this.triggers.size());
+        buckets.others.forEach(positions::set);
+        buckets.flows.getOrDefault(new Key(Key.Type.FLOW, execution.getNamespace(), execution.getFlowId()), List.of()).forEach(positions::set);
+        buckets.namespaces.getOrDefault(execution.getNamespace(), List.of()).forEach(positions::set);
+
+        if (!buckets.prefixes.isEmpty()) {
+            String namespace = execution.getNamespace();
+            for (int length = 0; length <= namespace.length(); length++) {
+                buckets.prefixes.getOrDefault(namespace.substring(0, length), List.of()).forEach(positions::set);
+            }
+        }
+
+        return positions.stream()
+            .mapToObj(this.triggers::get)
+            .toList();
+    }
+
+    public int size() {
+        return this.triggers.size();
+    }
+
+    private static List<Key> keys(io.kestra.plugin.core.trigger.Flow trigger) {
+        List<Condition> conditions = Optional.ofNullable(trigger.getConditions()).orElse(List.of());
+
+        Optional<Key> required = conditions.stream()
+            .filter(Predicate.not(MultipleCondition.class::isInstance))
+            .map(FlowTriggerIndex::key)
+            .flatMap(Optional::stream)
+            .findFirst();
+        if (required.isPresent()) {
+            return List.of(required.get());
+        }
+
+        List<Condition> multipleConditions = conditions.stream()
+            .filter(MultipleCondition.class::isInstance)
+            .map(MultipleCondition.class::cast)
+            .flatMap(multipleCondition -> Optional.ofNullable(multipleCondition.getConditions()).map(Map::values).stream().flatMap(Collection::stream))
+            .toList();
+        if (multipleConditions.isEmpty()) {
+            return null;
+        }
+
+        List<Key> keys = new ArrayList<>();
+        for (Condition condition : multipleConditions) {
+            Optional<Key> key = key(condition);
+            if (key.isEmpty()) {
+                return null;
+            }
+
+            keys.add(key.get());
+        }
+
+        return keys;
+    }
+
+    private static Optional<Key> key(Condition condition) {
+        if (condition instanceof ExecutionFlowCondition flowCondition) {
+            return Optional.of(new Key(Key.Type.FLOW, flowCondition.getNamespace(), flowCondition.getFlowId()));
+        }
+
+        if (condition instanceof ExecutionNamespaceCondition namespaceCondition) {
+            ExecutionNamespaceCondition.Comparison comparison = Optional.ofNullable(namespaceCondition.getComparison())
+                .orElse(namespaceCondition.isPrefix() ? ExecutionNamespaceCondition.Comparison.PREFIX : ExecutionNamespaceCondition.Comparison.EQUALS);
+
+            return switch (comparison) {
+                case EQUALS -> Optional.of(new Key(Key.Type.NAMESPACE, namespaceCondition.getNamespace(), null));
+                case PREFIX -> Optional.of(new Key(Key.Type.PREFIX, namespaceCondition.getNamespace(), null));
+                case SUFFIX -> Optional.empty();
+            };
+        }
+
+        return Optional.empty();
+    }
+
+    private record Key(Type type, String namespace, String flowId) {
+        private enum Type {
+            FLOW,
+            NAMESPACE,
+            PREFIX
+        }
+    }
+
+    private static class Buckets {
+        private final Map<Key, List<Integer>> flows = new HashMap<>();
+        private final Map<String, List<Integer>> namespaces = new HashMap<>();
+        private final Map<String, List<Integer>> prefixes = new HashMap<>();
+        private final List<Integer> others = new ArrayList<>();
+
+        private void add(Key key, int position) {
+            switch (key.type()) {
+                case FLOW -> this.flows.computeIfAbsent(key, k -> new ArrayList<>()).add(position);
+                case NAMESPACE -> this.namespaces.computeIfAbsent(key.namespace(), k -> new ArrayList<>()).add(position);
+                case PREFIX -> this.prefixes.computeIfAbsent(key.namespace(), k -> new ArrayList<>()).add(position);
+            }
+        }
+    }
+}
@@ -45,16 +45,29 @@ public class FlowTriggerService {
             .map(io.kestra.plugin.core.trigger.Flow.class::cast);
     }
 
+    /**
+     * Index the flow triggers of the enabled flows, to be rebuilt each time the flows change.
+     */
+    public FlowTriggerIndex index(List<Flow> allFlows) {
+        return new FlowTriggerIndex(
+            allFlows.stream()
+                // ensure flow & triggers are enabled
+                .filter(flow -> !flow.isDisabled() && !(flow instanceof FlowWithException))
+                .filter(flow -> flow.getTriggers() != null && !flow.getTriggers().isEmpty())
+                .flatMap(flow -> flowTriggers(flow).map(trigger -> new FlowWithFlowTrigger(flow, trigger)))
+                .toList()
+        );
+    }
+
     public List<Execution> computeExecutionsFromFlowTriggers(Execution execution, List<Flow> allFlows, Optional<MultipleConditionStorageInterface> multipleConditionStorage) {
-        List<FlowWithFlowTrigger> validTriggersBeforeMultipleConditionEval = allFlows.stream()
+        return computeExecutionsFromFlowTriggers(execution, index(allFlows), multipleConditionStorage);
+    }
+
+    public List<Execution> computeExecutionsFromFlowTriggers(Execution execution, FlowTriggerIndex flowTriggerIndex, Optional<MultipleConditionStorageInterface> multipleConditionStorage) {
+        // only the triggers listening to the execution state and whose conditions could match the execution
+        List<FlowWithFlowTrigger> validTriggersBeforeMultipleConditionEval = flowTriggerIndex.candidates(execution).stream()
             // prevent recursive flow triggers
-            .filter(flow -> flowService.removeUnwanted(flow, execution))
-            // ensure flow & triggers are enabled
-            .filter(flow -> !flow.isDisabled() && !(flow instanceof FlowWithException))
-            .filter(flow -> flow.getTriggers() != null && !flow.getTriggers().isEmpty())
-            .flatMap(flow -> flowTriggers(flow).map(trigger -> new FlowWithFlowTrigger(flow, trigger)))
-            // filter on the execution state the flow listen to
-            .filter(flowWithFlowTrigger -> flowWithFlowTrigger.getTrigger().getStates().contains(execution.getState().getCurrent()))
+            .filter(flowWithFlowTrigger -> flowService.removeUnwanted(flowWithFlowTrigger.getFlow(), execution))
             // validate flow triggers conditions excluding multiple conditions
             .filter(flowWithFlowTrigger -> conditionService.valid(
                 flowWithFlowTrigger.getFlow(),
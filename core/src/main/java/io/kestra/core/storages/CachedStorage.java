@@ -0,0 +1,268 @@
+package io.kestra.core.storages;
+
+import com.google.common.hash.Hashing;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link StorageInterface} keeping a copy of the files read on the local disk, in front of a remote storage.
+ * <p>
+ * The files are cached by tenant and URI, each read checks the attributes of the file in the storage and serves the local copy
+ * when its last modified time and size are unchanged, so only a metadata call is done instead of a download.
+ * The least recently used files are evicted when the cache exceeds its max size, the files bigger than it are not cached.
+ * <p>
+ * The files written, moved or deleted through this storage are removed from the cache, the ones changed by other servers
+ * are detected with their attributes.
+ */
+public class CachedStorage implements StorageInterface {
+    private static final Logger log = LoggerFactory.getLogger(CachedStorage.class);
+    private static final String FILE_PREFIX = "kestra-storage-cache-";
+
+    private final StorageInterface storage;
+    private final Path directory;
+    private final long maxSize;
+
+    // access ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    public CachedStorage(StorageInterface storage, Configuration configuration) throws IOException {
+        this.storage = storage;
+        this.directory = configuration.getPath();
+        this.maxSize = configuration.getMaxSize();
+
+        Files.createDirectories(this.directory);
+
+        // the files of a previous run are not indexed, they're removed so the size of the cache stays accurate,
+        // only the ones created by the cache as the directory can be shared
+        try (var files = Files.list(this.directory)) {
+            for (Path file : files.toList()) {
+                if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) && file.getFileName().toString().startsWith(FILE_PREFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void init() throws IOException {
+        this.storage.init();
+    }
+
+    @Override
+    public void close() {
+        this.storage.close();
+    }
+
+    @Override
+    public String getType() {
+        return this.storage.getType();
+    }
+
+    @Override
+    public InputStream get(String tenantId, URI uri) throws IOException {
+        FileAttributes attributes = this.storage.getAttributes(tenantId, uri);
+        if (attributes.getType() != FileAttributes.FileType.File || attributes.getSize() > this.maxSize) {
+            return this.storage.get(tenantId, uri);
+        }
+
+        String key = key(tenantId, uri);
+        InputStream cached = this.cached(key, attributes);
+        if (cached != null) {
+            return new BufferedInputStream(cached);
+        }
+
+        return new BufferedInputStream(this.download(key, tenantId, uri, attributes));
+    }
+
+    @Override
+    public StorageObject getWithMetadata(String tenantId, URI uri) throws IOException {
+        return this.storage.getWithMetadata(tenantId, uri);
+    }
+
+    @Override
+    public List<URI> allByPrefix(String tenantId, URI prefix, boolean includeDirectories) throws IOException {
+        return this.storage.allByPrefix(tenantId, prefix, includeDirectories);
+    }
+
+    @Override
+    public List<FileAttributes> list(String tenantId, URI uri) throws IOException {
+        return this.storage.list(tenantId, uri);
+    }
+
+    @Override
+    public boolean exists(String tenantId, URI uri) {
+        return this.storage.exists(tenantId, uri);
+    }
+
+    @Override
+    public FileAttributes getAttributes(String tenantId, URI uri) throws IOException {
+        return this.storage.getAttributes(tenantId, uri);
+    }
+
+    @Override
+    public URI put(String tenantId, URI uri, StorageObject storageObject) throws IOException {
+        this.invalidate(tenantId, uri);
+        return this.storage.put(tenantId, uri, storageObject);
+    }
+
+    @Override
+    public boolean delete(String tenantId, URI uri) throws IOException {
+        this.invalidate(tenantId, uri);
+        return this.storage.delete(tenantId, uri);
+    }
+
+    @Override
+    public URI createDirectory(String tenantId, URI uri) throws IOException {
+        return this.storage.createDirectory(tenantId, uri);
+    }
+
+    @Override
+    public URI move(String tenantId, URI from, URI to) throws IOException {
+        this.invalidatePrefix(tenantId, from);
+        this.invalidatePrefix(tenantId, to);
+        return this.storage.move(tenantId, from, to);
+    }
+
+    @Override
+    public List<URI> deleteByPrefix(String tenantId, URI storagePrefix) throws IOException {
+        this.invalidatePrefix(tenantId, storagePrefix);
+        return this.storage.deleteByPrefix(tenantId, storagePrefix);
+    }
+
+    /**
+     * Open the cached file while holding the lock, so it can't be replaced or evicted between the check and the open.
+     * Once opened, the stream can still be read after the file is deleted.
+     */
+    private synchronized InputStream cached(String key, FileAttributes attributes) throws IOException {
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.lastModifiedTime == attributes.getLastModifiedTime() && entry.size == attributes.getSize()) {
+            try {
+                return Files.newInputStream(entry.path);
+            } catch (NoSuchFileException e) {
+                // removed from the disk outside the cache, downloaded again
+            }
+        }
+
+        this.remove(key);
+        return null;
+    }
+
+    private InputStream download(String key, String tenantId, URI uri, FileAttributes attributes) throws IOException {
+        Path temp = Files.createTempFile(this.directory, FILE_PREFIX + "download-", ".tmp");
+        try (InputStream inputStream = this.storage.get(tenantId, uri)) {
+            Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        long fileSize = Files.size(temp);
+        Path path = this.directory.resolve(FILE_PREFIX + Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString());
+
+        synchronized (this) {
+            this.remove(key);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // the size read is kept to validate the next reads, the one of the attributes can differ for compressed objects
+            this.entries.put(key, new Entry(path, attributes.getLastModifiedTime(), attributes.getSize(), fileSize));
+            this.size += fileSize;
+
+            this.evict();
+
+            // opened before releasing the lock, as the file can be replaced by a concurrent download or evicted right after
+            if (this.entries.containsKey(key)) {
+                return Files.newInputStream(path);
+            }
+        }
+
+        // evicted at once, not cached
+        return this.storage.get(tenantId, uri);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+        while (this.size > this.maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            this.size -= entry.fileSize;
+            this.deleteFile(entry.path);
+        }
+    }
+
+    private synchronized void invalidate(String tenantId, URI uri) {
+        this.remove(key(tenantId, uri));
+    }
+
+    private synchronized void invalidatePrefix(String tenantId, URI prefix) {
+        String keyPrefix = key(tenantId, prefix);
+
+        List<String> keys = new ArrayList<>();
+        for (String key : this.entries.keySet()) {
+            if (key.startsWith(keyPrefix)) {
+                keys.add(key);
+            }
+        }
+
+        keys.forEach(this::remove);
+    }
+
+    private void remove(String key) {
+        Entry entry = this.entries.remove(key);
+        if (entry != null) {
+            this.size -= entry.fileSize;
+            this.deleteFile(entry.path);
+        }
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete the cached file '{}'", path, e);
+        }
+    }
+
+    private static String key(String tenantId, URI uri) {
+        // the scheme is optional, 'kestra:///a' and '/a' are the same file
+        return Objects.requireNonNullElse(tenantId, "") + "|" + uri.getPath();
+    }
+
+    private record Entry(Path path, long lastModifiedTime, long size, long fileSize) {
+    }
+
+    @ConfigurationProperties("kestra.storage-cache")
+    @Getter
+    public static class Configuration {
+        // to be enabled on the workers in front of a remote storage
+        Boolean enabled = false;
+
+        Path path = Path.of(System.getProperty("java.io.tmpdir"), "kestra-storage-cache");
+
+        // in bytes
+        Long maxSize = 1024L * 1024 * 1024;
+    }
+}
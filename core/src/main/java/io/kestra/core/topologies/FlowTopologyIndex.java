@@ -0,0 +1,289 @@
+package io.kestra.core.topologies;
+
+import io.kestra.core.models.conditions.Condition;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.tasks.ExecutableTask;
+import io.kestra.core.utils.ListUtils;
+import io.kestra.plugin.core.condition.ExecutionFlowCondition;
+import io.kestra.plugin.core.condition.ExecutionNamespaceCondition;
+import io.kestra.plugin.core.condition.MultipleCondition;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The flows known by the topology, with reverse indexes of their subflow tasks and of the flow trigger conditions restricting the flows they listen to,
+ * so the topology of a flow is only computed against the flows that could be related to it instead of all the flows.
+ * <p>
+ * A flow trigger is indexed on the first of its conditions that is an {@link ExecutionFlowCondition} or an {@link ExecutionNamespaceCondition}
+ * with an equals or prefix comparison, or on the conditions of a {@link MultipleCondition} when they are all of these types.
+ * The flows whose flow triggers can't be indexed are candidates for all the flows.
+ * <p>
+ * The index is updated incrementally with each flow received, it's not thread-safe.
+ */
+@Slf4j
+public class FlowTopologyIndex {
+    private final FlowTopologyService flowTopologyService;
+
+    private final Map<String, Flow> flows = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Map<Key, Set<String>> flowsById = new HashMap<>();
+    private final Map<String, Set<String>> flowsByNamespace = new HashMap<>();
+
+    private final Map<Key, Set<String>> subflowParents = new HashMap<>();
+    private final Map<Key, Set<String>> triggerFlows = new HashMap<>();
+    private final Map<String, Set<String>> triggerNamespaces = new HashMap<>();
+    private final Map<String, Set<String>> triggerPrefixes = new HashMap<>();
+    private final Set<String> triggerOthers = new HashSet<>();
+
+    FlowTopologyIndex(FlowTopologyService flowTopologyService) {
+        this.flowTopologyService = flowTopologyService;
+    }
+
+    public void upsert(Flow flow) {
+        this.remove(flow);
+
+        String uid = flow.uidWithoutRevision();
+        Entry entry = this.entry(flow);
+
+        this.flows.put(uid, flow);
+        this.entries.put(uid, entry);
+
+        add(this.flowsById, Key.flow(flow.getNamespace(), flow.getId()), uid);
+        add(this.flowsByNamespace, flow.getNamespace(), uid);
+
+        entry.subflows.forEach(key -> add(this.subflowParents, key, uid));
+
+        if (entry.triggers.isEmpty()) {
+            this.triggerOthers.add(uid);
+        } else {
+            entry.triggers.get().forEach(key -> {
+                switch (key.type) {
+                    case FLOW -> add(this.triggerFlows, key, uid);
+                    case NAMESPACE -> add(this.triggerNamespaces, key.namespace, uid);
+                    case PREFIX -> add(this.triggerPrefixes, key.namespace, uid);
+                }
+            });
+        }
+    }
+
+    public void remove(Flow flow) {
+        String uid = flow.uidWithoutRevision();
+        Flow previous = this.flows.remove(uid);
+        Entry entry = this.entries.remove(uid);
+        if (previous == null) {
+            return;
+        }
+
+        remove(this.flowsById, Key.flow(previous.getNamespace(), previous.getId()), uid);
+        remove(this.flowsByNamespace, previous.getNamespace(), uid);
+
+        entry.subflows.forEach(key -> remove(this.subflowParents, key, uid));
+
+        this.triggerOthers.remove(uid);
+        entry.triggers.ifPresent(keys -> keys.forEach(key -> {
+            switch (key.type) {
+                case FLOW -> remove(this.triggerFlows, key, uid);
+                case NAMESPACE -> remove(this.triggerNamespaces, key.namespace, uid);
+                case PREFIX -> remove(this.triggerPrefixes, key.namespace, uid);
+            }
+        }));
+    }
+
+    /**
+     * The other flows that could be a parent or a child of the flow, through a subflow task or a flow trigger, in either direction.
+     */
+    public List<Flow> candidates(Flow flow) {
+        Entry entry = this.entry(flow);
+        Key self = Key.flow(flow.getNamespace(), flow.getId());
+
+        Set<String> uids = new HashSet<>();
+
+        // its subflows and the flows calling it as a subflow
+        entry.subflows.forEach(key -> uids.addAll(this.flowsById.getOrDefault(key, Set.of())));
+        uids.addAll(this.subflowParents.getOrDefault(self, Set.of()));
+
+        // the flows it listens to
+        if (entry.triggers.isEmpty()) {
+            uids.addAll(this.flows.keySet());
+        } else {
+            entry.triggers.get().forEach(key -> {
+                switch (key.type) {
+                    case FLOW -> uids.addAll(this.flowsById.getOrDefault(key, Set.of()));
+                    case NAMESPACE -> uids.addAll(this.flowsByNamespace.getOrDefault(key.namespace, Set.of()));
+                    case PREFIX -> this.flowsByNamespace.forEach((namespace, flows) -> {
+                        if (namespace.startsWith(key.namespace)) {
+                            uids.addAll(flows);
+                        }
+                    });
+                }
+            });
+        }
+
+        // the flows listening to it
+        uids.addAll(this.triggerFlows.getOrDefault(self, Set.of()));
+        uids.addAll(this.triggerNamespaces.getOrDefault(flow.getNamespace(), Set.of()));
+        for (int length = 0; length <= flow.getNamespace().length() && !this.triggerPrefixes.isEmpty(); length++) {
+            uids.addAll(this.triggerPrefixes.getOrDefault(flow.getNamespace().substring(0, length), Set.of()));
+        }
+        uids.addAll(this.triggerOthers);
+
+        uids.remove(flow.uidWithoutRevision());
+
+        return uids.stream()
+            .map(this.flows::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Upsert or remove the flow depending on whether it's deleted, unless a newer revision of it is already indexed,
+     * as the same flow can be received from several consumers of the flow queue that aren't in sync.
+     */
+    public void update(Flow flow) {
+        Flow indexed = this.flows.get(flow.uidWithoutRevision());
+        if (indexed != null && indexed.getRevision() != null && flow.getRevision() != null && indexed.getRevision() > flow.getRevision()) {
+            return;
+        }
+
+        if (flow.isDeleted()) {
+            this.remove(flow);
+        } else {
+            this.upsert(flow);
+        }
+    }
+
+    public int size() {
+        return this.flows.size();
+    }
+
+    private Entry entry(Flow flow) {
+        return new Entry(this.subflows(flow), this.triggers(flow));
+    }
+
+    private List<Key> subflows(Flow flow) {
+        try {
+            return flow
+                .allTasksWithChilds()
+                .stream()
+                .filter(t -> t instanceof ExecutableTask)
+                .map(t -> ((ExecutableTask<?>) t).subflowId())
+                .filter(subflowId -> subflowId != null && subflowId.namespace() != null && subflowId.flowId() != null)
+                .map(subflowId -> Key.flow(subflowId.namespace(), subflowId.flowId()))
+                .distinct()
+                .toList();
+        } catch (Exception e) {
+            log.warn("Failed to detect flow task on namespace:'" + flow.getNamespace() + "', flowId:'" + flow.getId()  + "'", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * The keys of the flows the flow triggers listen to, empty if they can't be indexed.
+     */
+    private Optional<List<Key>> triggers(Flow flow) {
+        List<io.kestra.plugin.core.trigger.Flow> flowTriggers = ListUtils.emptyOnNull(flow.getTriggers())
+            .stream()
+            .filter(t -> t instanceof io.kestra.plugin.core.trigger.Flow)
+            .map(t -> (io.kestra.plugin.core.trigger.Flow) t)
+            .toList();
+
+        if (flowTriggers.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        List<Condition> conditions = flowTriggers
+            .stream()
+            .flatMap(trigger -> ListUtils.emptyOnNull(trigger.getConditions()).stream())
+            .toList();
+
+        // all the conditions must be valid, one is enough to restrict the flows
+        Optional<Key> required = conditions.stream()
+            .filter(condition -> !(condition instanceof MultipleCondition))
+            .map(FlowTopologyIndex::key)
+            .flatMap(Optional::stream)
+            .findFirst();
+        if (required.isPresent()) {
+            return Optional.of(List.of(required.get()));
+        }
+
+        // one of the conditions of a multiple condition must be valid, so they must all be indexed
+        return conditions.stream()
+            .filter(condition -> condition instanceof MultipleCondition)
+            .map(condition -> this.keys((MultipleCondition) condition))
+            .flatMap(Optional::stream)
+            .findFirst();
+    }
+
+    private Optional<List<Key>> keys(MultipleCondition multipleCondition) {
+        List<Key> keys = new ArrayList<>();
+
+        for (Condition condition : multipleCondition.getConditions().values()) {
+            if (this.flowTopologyService.isFilterCondition(condition) || this.flowTopologyService.isMandatoryMultipleCondition(condition)) {
+                continue;
+            }
+
+            Optional<Key> key = key(condition);
+            if (key.isEmpty()) {
+                return Optional.empty();
+            }
+
+            keys.add(key.get());
+        }
+
+        return Optional.of(keys);
+    }
+
+    private static Optional<Key> key(Condition condition) {
+        if (condition instanceof ExecutionFlowCondition flowCondition) {
+            return Optional.of(Key.flow(flowCondition.getNamespace(), flowCondition.getFlowId()));
+        }
+
+        if (condition instanceof ExecutionNamespaceCondition namespaceCondition) {
+            ExecutionNamespaceCondition.Comparison comparison = Optional.ofNullable(namespaceCondition.getComparison())
+                .orElse(namespaceCondition.isPrefix() ? ExecutionNamespaceCondition.Comparison.PREFIX : ExecutionNamespaceCondition.Comparison.EQUALS);
+
+            return switch (comparison) {
+                case EQUALS -> Optional.of(new Key(Key.Type.NAMESPACE, namespaceCondition.getNamespace(), null));
+                case PREFIX -> Optional.of(new Key(Key.Type.PREFIX, namespaceCondition.getNamespace(), null));
+                case SUFFIX -> Optional.empty();
+            };
+        }
+
+        return Optional.empty();
+    }
+
+    private static <K> void add(Map<K, Set<String>> index, K key, String uid) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(uid);
+    }
+
+    private static <K> void remove(Map<K, Set<String>> index, K key, String uid) {
+        index.computeIfPresent(key, (k, uids) -> {
+            uids.remove(uid);
+            return uids.isEmpty() ? null : uids;
+        });
+    }
+
+    private record Entry(List<Key> subflows, Optional<List<Key>> triggers) {
+    }
+
+    private record Key(Type type, String namespace, String flowId) {
+        private static Key flow(String namespace, String flowId) {
+            return new Key(Type.FLOW, namespace, flowId);
+        }
+
+        private enum Type {
+            FLOW,
+            NAMESPACE,
+            PREFIX
+        }
+    }
+}
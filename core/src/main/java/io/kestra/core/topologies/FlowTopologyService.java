@@ -106,6 +106,21 @@ public class FlowTopologyService {
             .build();
     }
 
+    /**
+     * Index the flows so the topology of a flow is only computed against the flows that could be related to it,
+     * the index must then be updated with each flow created, updated or deleted.
+     */
+    public FlowTopologyIndex index(List<Flow> allFlows) {
+        FlowTopologyIndex index = new FlowTopologyIndex(this);
+        allFlows.forEach(index::upsert);
+
+        return index;
+    }
+
+    public Stream<FlowTopology> topology(Flow child, FlowTopologyIndex index) {
+        return this.topology(child, index.candidates(child).stream());
+    }
+
     public Stream<FlowTopology> topology(Flow child, Stream<Flow> allFlows) {
         return allFlows
             .flatMap(parent -> Stream.concat(
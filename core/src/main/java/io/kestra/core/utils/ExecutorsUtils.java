@@ -2,6 +2,7 @@ package io.kestra.core.utils;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micronaut.context.annotation.Value;
 
 import java.util.concurrent.*;
 
@@ -16,6 +17,29 @@ public class ExecutorsUtils {
     @Inject
     private MeterRegistry meterRegistry;
 
+    @Value("${kestra.executors.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    public boolean isVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    /**
+     * A pool for tasks that mostly wait on I/O, like queue pollers:
+     * one virtual thread per task when virtual threads are enabled, a cached thread pool otherwise.
+     */
+    public ExecutorService ioCachedThreadPool(String name) {
+        return this.virtualThreads ? this.virtualThreadPerTaskExecutor(name) : this.cachedThreadPool(name);
+    }
+
+    /**
+     * A bounded pool for tasks that mostly wait on I/O.
+     * With virtual threads, the pool is not bounded anymore: the caller must limit the concurrency itself, for example with a semaphore.
+     */
+    public ExecutorService ioMaxCachedThreadPool(int maxThread, String name) {
+        return this.virtualThreads ? this.virtualThreadPerTaskExecutor(name) : this.maxCachedThreadPool(maxThread, name);
+    }
+
     public ExecutorService cachedThreadPool(String name) {
         return this.wrap(
             name,
@@ -71,6 +95,18 @@ public class ExecutorsUtils {
         );
     }
 
+    /**
+     * One virtual thread per task, the caller must limit the concurrency itself.
+     */
+    public ExecutorService virtualThreadPerTaskExecutor(String name) {
+        return this.wrap(
+            name,
+            Executors.newThreadPerTaskExecutor(
+                threadFactoryBuilder.buildVirtual(name + "_")
+            )
+        );
+    }
+
     private ExecutorService wrap(String name, ExecutorService executorService) {
         return ExecutorServiceMetrics.monitor(
             meterRegistry,
@@ -17,4 +17,14 @@ public class ThreadMainFactoryBuilder {
             .setUncaughtExceptionHandler(this.uncaughtExceptionHandler)
             .build();
     }
+
+    /**
+     * A factory of virtual threads named with the given prefix and an incrementing counter.
+     */
+    public ThreadFactory buildVirtual(String prefix) {
+        return Thread.ofVirtual()
+            .name(prefix, 0)
+            .uncaughtExceptionHandler(this.uncaughtExceptionHandler)
+            .factory();
+    }
 }
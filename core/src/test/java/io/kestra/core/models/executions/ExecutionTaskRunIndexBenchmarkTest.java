@@ -0,0 +1,84 @@
+package io.kestra.core.models.executions;
+
+import io.kestra.core.models.flows.State;
+import io.kestra.core.utils.IdUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Measure the cost of the task run lookups done by the executor for each worker task result,
+ * on an execution with a ForEach of 10, 1k and 10k iterations.
+ * <p>
+ * Run it with <code>./gradlew :core:test --tests ExecutionTaskRunIndexBenchmarkTest -Dkestra.benchmark=true</code>,
+ * the results are logged.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "kestra.benchmark", matches = "true")
+class ExecutionTaskRunIndexBenchmarkTest {
+    private static final int STEPS = 1_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 10_000})
+    void executorStep(int taskRuns) throws Exception {
+        TaskRun parent = TaskRun.builder().id(IdUtils.create()).taskId("each").state(new State(State.Type.RUNNING, new State())).build();
+        List<TaskRun> taskRunList = new ArrayList<>();
+        taskRunList.add(parent);
+        for (int i = 0; i < taskRuns; i++) {
+            taskRunList.add(TaskRun.builder()
+                .id(IdUtils.create())
+                .taskId("child")
+                .parentTaskRunId(parent.getId())
+                .value(String.valueOf(i))
+                .state(new State(State.Type.RUNNING, new State()))
+                .build()
+            );
+        }
+
+        Execution execution = Execution.builder()
+            .id(IdUtils.create())
+            .taskRunList(taskRunList)
+            .state(new State(State.Type.RUNNING, new State()))
+            .build();
+
+        // warm up, then each step is a worker task result joined to the execution like in the executor
+        execution = steps(execution, taskRunList, STEPS);
+
+        long start = System.nanoTime();
+        execution = steps(execution, taskRunList, STEPS);
+        long duration = System.nanoTime() - start;
+
+        log.info(
+            "{} task runs: {}µs per executor step",
+            taskRuns,
+            TimeUnit.NANOSECONDS.toMicros(duration / STEPS)
+        );
+
+        assertThat(execution.findTaskRunsByTaskId("child").size(), is(taskRuns));
+    }
+
+    private static Execution steps(Execution execution, List<TaskRun> taskRunList, int steps) throws Exception {
+        for (int i = 0; i < steps; i++) {
+            TaskRun taskRun = taskRunList.get(1 + i % (taskRunList.size() - 1));
+            TaskRun result = taskRun.withState(State.Type.SUCCESS);
+
+            if (execution.hasTaskRunJoinable(result)) {
+                execution = execution.withTaskRun(result);
+            }
+
+            execution.findTaskRunByTaskRunId(result.getParentTaskRunId());
+            execution.findTaskRunsByTaskId(result.getTaskId());
+            execution.findTaskRunByTaskIdAndValue(result.getTaskId(), List.of(result.getValue()));
+        }
+
+        return execution;
+    }
+}
@@ -161,4 +161,32 @@ class ExecutionTest {
         assertThat(execution.getLabels().size(), is(1));
         assertThat(execution.getLabels().getFirst(), is(new Label("test", "test-value")));
     }
+
+    @Test
+    void taskRunLookups() throws Exception {
+        TaskRun parent = TaskRun.builder().id("parent").taskId("each").state(new State()).build();
+        TaskRun first = TaskRun.builder().id("first").taskId("child").parentTaskRunId("parent").value("a").state(new State()).build();
+        TaskRun second = TaskRun.builder().id("second").taskId("child").parentTaskRunId("parent").value("b").state(new State()).build();
+
+        Execution execution = Execution.builder()
+            .id(IdUtils.create())
+            .taskRunList(List.of(parent, first, second))
+            .state(new State())
+            .build();
+
+        assertThat(execution.findTaskRunByTaskRunId("second"), is(second));
+        assertThat(execution.findTaskRunsByTaskId("child"), is(List.of(first, second)));
+        assertThat(execution.findTaskRunByTaskIdAndValue("child", List.of("b")), is(second));
+        assertThat(execution.findParents(second), is(List.of(parent)));
+
+        // the replaced task run is found on the new execution, the previous one is unchanged
+        TaskRun running = second.withState(State.Type.RUNNING);
+        Execution updated = execution.withTaskRun(running).withState(State.Type.RUNNING);
+
+        assertThat(updated.findTaskRunByTaskRunId("second"), is(running));
+        assertThat(updated.findTaskRunsByTaskId("child"), is(List.of(first, running)));
+        assertThat(updated.findTaskRunByTaskIdAndValue("child", List.of("b")), is(running));
+        assertThat(execution.findTaskRunByTaskRunId("second"), is(second));
+        assertThat(updated.getTaskRunList(), is(List.of(parent, first, running)));
+    }
 }
@@ -5,6 +5,7 @@ import io.kestra.core.services.WorkerGroupService;
 import io.kestra.core.utils.ExecutorsUtils;
 import io.micronaut.context.annotation.Parameter;
 import io.micronaut.context.annotation.Prototype;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.core.annotation.Nullable;
@@ -22,9 +23,10 @@ public class TestMethodScopedWorker extends Worker {
                                   @Nullable @Parameter String workerGroupKey,
                                   ApplicationEventPublisher<ServiceStateChangeEvent> eventPublisher,
                                   WorkerGroupService workerGroupService,
-                                  ExecutorsUtils executorsUtils
+                                  ExecutorsUtils executorsUtils,
+                                  @Value("${kestra.worker.virtual-threads:false}") boolean virtualThreads
     ) {
-        super(workerId, numThreads, workerGroupKey, eventPublisher, workerGroupService, executorsUtils);
+        super(workerId, numThreads, workerGroupKey, eventPublisher, workerGroupService, executorsUtils, virtualThreads);
     }
 
     /**
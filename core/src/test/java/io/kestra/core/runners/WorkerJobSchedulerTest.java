@@ -0,0 +1,83 @@
+package io.kestra.core.runners;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.utils.IdUtils;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+class WorkerJobSchedulerTest {
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @Test
+    void weighted() {
+        WorkerJobScheduler.Configuration configuration = new WorkerJobScheduler.Configuration();
+        configuration.weights = Map.of("io.kestra.heavy", 1, "io.kestra.light", 2);
+
+        Queue<Runnable> threads = new LinkedList<>();
+        List<String> started = new ArrayList<>();
+        WorkerJobScheduler scheduler = new WorkerJobScheduler(configuration, 1, threads::add, metricRegistry, null);
+
+        // the heavy namespace claimed a lot of jobs before the light one
+        for (int i = 0; i < 30; i++) {
+            scheduler.submit(workerTask("io.kestra.heavy"), () -> started.add("heavy"));
+        }
+        for (int i = 0; i < 10; i++) {
+            scheduler.submit(workerTask("io.kestra.light"), () -> started.add("light"));
+        }
+
+        for (int i = 0; i < 16; i++) {
+            threads.poll().run();
+        }
+
+        // after the first heavy job, the light namespace is served twice as often
+        assertThat(started.stream().filter("light"::equals).count(), is(10L));
+        assertThat(scheduler.size(), is(23));
+    }
+
+    @Test
+    void maxInFlight() {
+        WorkerJobScheduler.Configuration configuration = new WorkerJobScheduler.Configuration();
+        configuration.maxInFlight = Map.of("io.kestra.heavy", 1);
+
+        Queue<Runnable> threads = new LinkedList<>();
+        WorkerJobScheduler scheduler = new WorkerJobScheduler(configuration, 4, threads::add, metricRegistry, null);
+
+        scheduler.submit(workerTask("io.kestra.heavy"), () -> {});
+        scheduler.submit(workerTask("io.kestra.heavy"), () -> {});
+        scheduler.submit(workerTask("io.kestra.light"), () -> {});
+        scheduler.submit(null, () -> {});
+
+        assertThat(threads.size(), is(3));
+        assertThat(scheduler.size(), is(1));
+
+        threads.poll().run();
+        assertThat(threads.size(), is(3));
+        assertThat(scheduler.size(), is(0));
+    }
+
+    private static WorkerTask workerTask(String namespace) {
+        return WorkerTask.builder()
+            .taskRun(TaskRun.builder()
+                .id(IdUtils.create())
+                .namespace(namespace)
+                .flowId("flow")
+                .executionId(IdUtils.create())
+                .taskId("task")
+                .build()
+            )
+            .build();
+    }
+}
@@ -0,0 +1,104 @@
+package io.kestra.core.runners;
+
+import com.google.common.collect.ImmutableMap;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.models.tasks.ResolvedTask;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.tasks.test.Sleep;
+import io.kestra.core.utils.Await;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+@Property(name = "kestra.worker.scheduler.enabled", value = "true")
+@Property(name = "kestra.worker.scheduler.max-in-flight.io.kestra.throttled", value = "1")
+class WorkerSchedulerTest {
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Inject
+    @Named(QueueFactoryInterface.WORKERJOB_NAMED)
+    QueueInterface<WorkerJob> workerTaskQueue;
+
+    @Inject
+    @Named(QueueFactoryInterface.WORKERTASKRESULT_NAMED)
+    QueueInterface<WorkerTaskResult> workerTaskResultQueue;
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void throttledNamespaceDoesNotHoldTheCapacity() throws TimeoutException, QueueException {
+        Worker worker = applicationContext.createBean(Worker.class, IdUtils.create(), 2, null);
+        worker.run();
+
+        List<WorkerTaskResult> results = new CopyOnWriteArrayList<>();
+        Flux<WorkerTaskResult> receive = TestsUtils.receive(workerTaskResultQueue, either -> results.add(either.getLeft()));
+
+        for (int i = 0; i < 3; i++) {
+            workerTaskQueue.emit(workerTask("io.kestra.throttled", 2000));
+        }
+
+        // one throttled job is running, the two others are held back and don't count: 2 threads + 2 prefetch - 1 running
+        Await.until(() -> worker.capacity() == 3, Duration.ofMillis(10), Duration.ofSeconds(10));
+
+        // the free thread runs the job of another namespace meanwhile
+        workerTaskQueue.emit(workerTask("io.kestra.other", 100));
+
+        Await.until(
+            () -> results.stream().anyMatch(result -> result.getTaskRun().getNamespace().equals("io.kestra.other") && result.getTaskRun().getState().getCurrent() == State.Type.SUCCESS),
+            Duration.ofMillis(10),
+            Duration.ofSeconds(10)
+        );
+        assertThat(
+            results.stream().filter(result -> result.getTaskRun().getNamespace().equals("io.kestra.throttled") && result.getTaskRun().getState().isTerminated()).count(),
+            is(0L)
+        );
+
+        worker.shutdown();
+        receive.blockLast();
+    }
+
+    private WorkerTask workerTask(String namespace, long sleepDuration) {
+        Sleep sleep = Sleep.builder()
+            .type(Sleep.class.getName())
+            .id("unit-test")
+            .duration(sleepDuration)
+            .build();
+
+        Flow flow = Flow.builder()
+            .id(IdUtils.create())
+            .namespace(namespace)
+            .tasks(Collections.singletonList(sleep))
+            .build();
+
+        Execution execution = TestsUtils.mockExecution(flow, ImmutableMap.of());
+
+        return WorkerTask.builder()
+            .runContext(runContextFactory.of(ImmutableMap.of("key", "value")))
+            .task(sleep)
+            .taskRun(TaskRun.of(execution, ResolvedTask.of(sleep)))
+            .build();
+    }
+}
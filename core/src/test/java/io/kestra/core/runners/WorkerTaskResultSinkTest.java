@@ -0,0 +1,148 @@
+package io.kestra.core.runners;
+
+import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.queues.MessageTooBigException;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.utils.Either;
+import io.kestra.core.utils.IdUtils;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class WorkerTaskResultSinkTest {
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @Test
+    void batched() throws Exception {
+        RecordingQueue queue = new RecordingQueue();
+        WorkerTaskResultSink sink = new WorkerTaskResultSink(queue, configuration(Duration.ofMillis(200)), metricRegistry);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(5);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(executorService.submit(() -> {
+                sink.emit(workerTaskResult("ok"));
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        assertThat(queue.batches.size(), is(1));
+        assertThat(queue.batches.getFirst().size(), is(5));
+    }
+
+    @Test
+    void failOnlyTheResultInError() throws Exception {
+        RecordingQueue queue = new RecordingQueue();
+        WorkerTaskResultSink sink = new WorkerTaskResultSink(queue, configuration(Duration.ofMillis(200)), metricRegistry);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<?> ok = executorService.submit(() -> {
+            sink.emit(workerTaskResult("ok"));
+            return null;
+        });
+        Future<?> tooBig = executorService.submit(() -> {
+            sink.emit(workerTaskResult("too-big"));
+            return null;
+        });
+        executorService.shutdown();
+
+        ok.get();
+        Exception exception = assertThrows(Exception.class, tooBig::get);
+        assertThat(exception.getCause(), instanceOf(MessageTooBigException.class));
+        assertThat(queue.emitted.stream().map(result -> result.getTaskRun().getTaskId()).toList(), is(List.of("ok")));
+    }
+
+    @Test
+    void notBatched() throws QueueException {
+        RecordingQueue queue = new RecordingQueue();
+        WorkerTaskResultSink sink = new WorkerTaskResultSink(queue, configuration(Duration.ZERO), metricRegistry);
+
+        sink.emit(workerTaskResult("ok"));
+
+        assertThat(queue.batches.size(), is(0));
+        assertThat(queue.emitted.size(), is(1));
+    }
+
+    private static WorkerTaskResultSink.Configuration configuration(Duration linger) {
+        WorkerTaskResultSink.Configuration configuration = new WorkerTaskResultSink.Configuration();
+        configuration.linger = linger;
+
+        return configuration;
+    }
+
+    private static WorkerTaskResult workerTaskResult(String taskId) {
+        return new WorkerTaskResult(TaskRun.builder().id(IdUtils.create()).taskId(taskId).build());
+    }
+
+    private static class RecordingQueue implements QueueInterface<WorkerTaskResult> {
+        private final List<List<WorkerTaskResult>> batches = new CopyOnWriteArrayList<>();
+        private final List<WorkerTaskResult> emitted = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void emit(String consumerGroup, WorkerTaskResult message) throws QueueException {
+            if (message.getTaskRun().getTaskId().equals("too-big")) {
+                throw new MessageTooBigException("too big");
+            }
+
+            this.emitted.add(message);
+        }
+
+        @Override
+        public void emit(String consumerGroup, List<WorkerTaskResult> messages) throws QueueException {
+            for (WorkerTaskResult message : messages) {
+                if (message.getTaskRun().getTaskId().equals("too-big")) {
+                    throw new MessageTooBigException("too big");
+                }
+            }
+
+            this.batches.add(messages);
+            this.emitted.addAll(messages);
+        }
+
+        @Override
+        public void emitAsync(String consumerGroup, WorkerTaskResult message) throws QueueException {
+            this.emit(consumerGroup, message);
+        }
+
+        @Override
+        public void delete(String consumerGroup, WorkerTaskResult message) {
+        }
+
+        @Override
+        public Runnable receive(String consumerGroup, Consumer<Either<WorkerTaskResult, DeserializationException>> consumer, boolean forUpdate) {
+            return () -> {};
+        }
+
+        @Override
+        public Runnable receive(String consumerGroup, Class<?> queueType, Consumer<Either<WorkerTaskResult, DeserializationException>> consumer, boolean forUpdate) {
+            return () -> {};
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
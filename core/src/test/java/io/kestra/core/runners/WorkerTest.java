@@ -2,6 +2,7 @@ package io.kestra.core.runners;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.collect.ImmutableMap;
+import io.kestra.core.metrics.MetricRegistry;
 import io.kestra.core.models.executions.*;
 import io.kestra.core.models.flows.Flow;
 import io.kestra.core.models.flows.State;
@@ -60,6 +61,9 @@ class WorkerTest {
     @Inject
     RunContextFactory runContextFactory;
 
+    @Inject
+    MetricRegistry metricRegistry;
+
     @Test
     void success() throws TimeoutException, QueueException {
         Worker worker = applicationContext.createBean(Worker.class, IdUtils.create(), 8, null);
@@ -191,6 +195,20 @@ class WorkerTest {
         assertThat(receiveLogs.toStream().filter(logEntry -> logEntry.getMessage().equals("3")).count(), is(0L));
     }
 
+    @Test
+    void killedOnVirtualThread() throws InterruptedException {
+        WorkerTask workerTask = workerTask(999000);
+        WorkerTaskThread workerThread = new WorkerTaskThread(workerTask, (Sleep) workerTask.getTask(), workerTask.getRunContext(), metricRegistry);
+
+        workerThread.startVirtual();
+        Thread.sleep(500);
+        workerThread.kill();
+        workerThread.joinRunner();
+
+        assertThat(workerThread.getTaskState(), is(State.Type.KILLED));
+        assertThat(workerThread.awaitStop(Duration.ZERO), is(true));
+    }
+
     @Test
     void shouldCreateInstanceGivenApplicationContext() {
         Assertions.assertDoesNotThrow(() -> applicationContext.createBean(Worker.class, IdUtils.create(), 8, null));
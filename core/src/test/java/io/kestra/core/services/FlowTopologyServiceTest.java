@@ -11,6 +11,7 @@ import io.kestra.core.serializers.YamlFlowParser;
 import io.kestra.plugin.core.debug.Return;
 import io.kestra.plugin.core.flow.Parallel;
 import io.kestra.plugin.core.flow.Subflow;
+import io.kestra.core.topologies.FlowTopologyIndex;
 import io.kestra.core.topologies.FlowTopologyService;
 import io.kestra.core.utils.TestsUtils;
 import io.kestra.core.junit.annotations.KestraTest;
@@ -172,6 +173,77 @@ class FlowTopologyServiceTest {
         assertThat(flowTopologyService.isChild(noTrigger, child), nullValue());
     }
 
+    @Test
+    public void index() {
+        Flow parent = Flow.builder()
+            .namespace("io.kestra.ee")
+            .id("parent")
+            .revision(1)
+            .tasks(List.of(Subflow.builder()
+                .id("launch")
+                .type(Subflow.class.getName())
+                .namespace("io.kestra.ee")
+                .flowId("child")
+                .build()
+            ))
+            .build();
+
+        Flow child = Flow.builder()
+            .namespace("io.kestra.ee")
+            .id("child")
+            .revision(1)
+            .tasks(List.of(returnTask()))
+            .build();
+
+        Flow listener = Flow.builder()
+            .namespace("io.kestra.others")
+            .id("listener")
+            .revision(1)
+            .tasks(List.of(returnTask()))
+            .triggers(List.of(
+                io.kestra.plugin.core.trigger.Flow.builder()
+                    .conditions(List.of(
+                        ExecutionFlowCondition.builder()
+                            .namespace("io.kestra.ee")
+                            .flowId("child")
+                            .build()
+                    ))
+                    .build()
+            ))
+            .build();
+
+        Flow unrelated = Flow.builder()
+            .namespace("io.kestra.exclude")
+            .id("unrelated")
+            .revision(1)
+            .tasks(List.of(returnTask()))
+            .build();
+
+        FlowTopologyIndex index = flowTopologyService.index(List.of(parent, listener, unrelated));
+        assertThat(index.candidates(child).stream().map(Flow::getId).sorted().toList(), is(List.of("listener", "parent")));
+        assertThat(index.candidates(unrelated), is(List.of()));
+
+        // the flow triggers listening to a flow are found once it's indexed
+        index.upsert(child);
+        assertThat(index.candidates(listener).stream().map(Flow::getId).toList(), is(List.of("child")));
+        assertThat(
+            flowTopologyService.topology(child, index).map(topology -> topology.getSource().getId() + "->" + topology.getDestination().getId()).sorted().toList(),
+            is(List.of("child->listener", "parent->child"))
+        );
+
+        index.remove(parent);
+        assertThat(index.candidates(child).stream().map(Flow::getId).toList(), is(List.of("listener")));
+
+        // a late message of a previous revision doesn't replace the indexed one
+        Flow unrelatedListener = listener.toBuilder().revision(2).triggers(null).build();
+        index.update(unrelatedListener);
+        index.update(listener);
+        assertThat(index.candidates(child), is(List.of()));
+
+        index.update(unrelatedListener.toBuilder().deleted(true).build());
+        assertThat(index.size(), is(2));
+    }
+
     @Test
     public void self1() {
         Flow flow = parse("flows/valids/trigger-multiplecondition-listener.yaml").toBuilder().revision(1).build();
@@ -0,0 +1,103 @@
+package io.kestra.core.services;
+
+import io.kestra.core.models.conditions.Condition;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.core.condition.ExecutionFlowCondition;
+import io.kestra.plugin.core.condition.ExecutionNamespaceCondition;
+import io.kestra.plugin.core.condition.ExecutionStatusCondition;
+import io.kestra.plugin.core.condition.MultipleCondition;
+import io.kestra.plugin.core.debug.Return;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+class FlowTriggerIndexTest {
+    private static Flow flow(String id, List<State.Type> states, Condition... conditions) {
+        return Flow.builder()
+            .namespace("io.kestra.tests")
+            .id(id)
+            .revision(1)
+            .tasks(List.of(Return.builder().id("return").type(Return.class.getName()).format("{{ flow.id }}").build()))
+            .triggers(List.of(
+                io.kestra.plugin.core.trigger.Flow.builder()
+                    .id("listen")
+                    .type(io.kestra.plugin.core.trigger.Flow.class.getName())
+                    .states(states)
+                    .conditions(List.of(conditions))
+                    .build()
+            ))
+            .build();
+    }
+
+    private static Execution execution(String namespace, String flowId, State.Type state) {
+        return Execution.builder()
+            .id(IdUtils.create())
+            .namespace(namespace)
+            .flowId(flowId)
+            .state(new State(state, new State()))
+            .build();
+    }
+
+    private static List<String> candidates(FlowTriggerIndex index, Execution execution) {
+        return index.candidates(execution).stream().map(flowWithFlowTrigger -> flowWithFlowTrigger.getFlow().getId()).toList();
+    }
+
+    private static FlowTriggerIndex index(List<Flow> flows) {
+        return new FlowTriggerIndex(
+            flows.stream()
+                .map(flow -> new FlowTriggerService.FlowWithFlowTrigger(flow, (io.kestra.plugin.core.trigger.Flow) flow.getTriggers().getFirst()))
+                .toList()
+        );
+    }
+
+    @Test
+    void candidates() {
+        List<State.Type> terminated = State.Type.terminatedTypes();
+
+        FlowTriggerIndex index = index(List.of(
+            flow("any", terminated, ExecutionStatusCondition.builder().in(List.of(State.Type.SUCCESS)).build()),
+            flow("flow", terminated, ExecutionFlowCondition.builder().namespace("company.team").flowId("upstream").build()),
+            flow("namespace", terminated, ExecutionNamespaceCondition.builder().namespace("company.team").build()),
+            flow("prefix", terminated, ExecutionNamespaceCondition.builder().namespace("company").prefix(true).build()),
+            flow("suffix", terminated, ExecutionNamespaceCondition.builder().namespace("team").comparison(ExecutionNamespaceCondition.Comparison.SUFFIX).build()),
+            flow("multiple", terminated, MultipleCondition.builder()
+                .id("multiple")
+                .conditions(Map.of(
+                    "first", ExecutionFlowCondition.builder().namespace("company.other").flowId("first").build(),
+                    "second", ExecutionFlowCondition.builder().namespace("company.other").flowId("second").build()
+                ))
+                .build()
+            ),
+            flow("running", List.of(State.Type.RUNNING), ExecutionFlowCondition.builder().namespace("company.team").flowId("upstream").build())
+        ));
+
+        assertThat(
+            candidates(index, execution("company.team", "upstream", State.Type.SUCCESS)),
+            contains("any", "flow", "namespace", "prefix", "suffix")
+        );
+        assertThat(
+            candidates(index, execution("company.other", "second", State.Type.FAILED)),
+            contains("any", "prefix", "multiple")
+        );
+        assertThat(
+            candidates(index, execution("other.team", "upstream", State.Type.SUCCESS)),
+            contains("any", "suffix")
+        );
+        assertThat(
+            candidates(index, execution("company.team", "upstream", State.Type.RUNNING)),
+            contains("running")
+        );
+        assertThat(
+            candidates(index, execution("company.team", "upstream", State.Type.CREATED)),
+            empty()
+        );
+    }
+}
@@ -0,0 +1,99 @@
+package io.kestra.core.services;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.Condition;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.core.condition.ExecutionFlowCondition;
+import io.kestra.plugin.core.condition.ExpressionCondition;
+import io.kestra.plugin.core.debug.Return;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Measure the cost of the flow triggers evaluated by the executor for each terminated execution, with 10k flows listening to another flow,
+ * when their conditions are indexed or not.
+ * <p>
+ * Run it with <code>./gradlew :core:test --tests FlowTriggerServiceBenchmarkTest -Dkestra.benchmark=true</code>,
+ * the results are logged.
+ */
+@Slf4j
+@KestraTest
+@EnabledIfSystemProperty(named = "kestra.benchmark", matches = "true")
+class FlowTriggerServiceBenchmarkTest {
+    private static final int FLOWS = 10_000;
+    private static final int EXECUTIONS = 100;
+
+    @Inject
+    FlowTriggerService flowTriggerService;
+
+    @Test
+    void terminatedExecutions() {
+        long indexed = this.measure(
+            "indexed",
+            i -> ExecutionFlowCondition.builder().namespace("io.kestra.benchmark").flowId("upstream-" + i).build()
+        );
+        long unindexed = this.measure(
+            "unindexed",
+            i -> ExpressionCondition.builder().expression("{{ execution.flowId == 'upstream-" + i + "' }}").build()
+        );
+
+        log.info("{} flows: indexed conditions are {}x faster", FLOWS, unindexed / Math.max(1, indexed));
+    }
+
+    private long measure(String name, IntFunction<Condition> condition) {
+        List<Flow> flows = IntStream.range(0, FLOWS)
+            .mapToObj(i -> Flow.builder()
+                .namespace("io.kestra.benchmark")
+                .id("downstream-" + i)
+                .revision(1)
+                .tasks(List.of(Return.builder().id("return").type(Return.class.getName()).format("{{ flow.id }}").build()))
+                .triggers(List.of(
+                    io.kestra.plugin.core.trigger.Flow.builder()
+                        .id("listen")
+                        .type(io.kestra.plugin.core.trigger.Flow.class.getName())
+                        .conditions(List.of(condition.apply(i)))
+                        .build()
+                ))
+                .build()
+            )
+            .toList();
+        FlowTriggerIndex index = flowTriggerService.index(flows);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EXECUTIONS; i++) {
+            Execution execution = Execution.builder()
+                .id(IdUtils.create())
+                .namespace("io.kestra.benchmark")
+                .flowId("upstream-" + i)
+                .state(new State(State.Type.SUCCESS, new State()))
+                .build();
+
+            List<Execution> executions = flowTriggerService.computeExecutionsFromFlowTriggers(execution, index, Optional.empty());
+            assertThat(executions.size(), is(1));
+        }
+        long duration = System.nanoTime() - start;
+
+        log.info(
+            "{} flows with {} conditions: {}µs per terminated execution",
+            FLOWS,
+            name,
+            TimeUnit.NANOSECONDS.toMicros(duration / EXECUTIONS)
+        );
+
+        return duration;
+    }
+}
@@ -0,0 +1,168 @@
+package io.kestra.core.storages;
+
+import io.kestra.core.utils.IdUtils;
+import io.kestra.storage.local.LocalStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CachedStorageTest {
+    @Test
+    void cached() throws Exception {
+        SlowStorage storage = slowStorage();
+        CachedStorage cachedStorage = new CachedStorage(storage, configuration(1024));
+        URI uri = URI.create("/" + IdUtils.create() + "/file.txt");
+
+        storage.put(null, uri, new ByteArrayInputStream("first".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(read(cachedStorage, null, uri), is("first"));
+        assertThat(read(cachedStorage, null, uri), is("first"));
+        assertThat(storage.gets.get(), is(1));
+
+        // the tenants don't share their files
+        storage.put("tenant", uri, new ByteArrayInputStream("tenant".getBytes(StandardCharsets.UTF_8)));
+        assertThat(read(cachedStorage, "tenant", uri), is("tenant"));
+        assertThat(storage.gets.get(), is(2));
+
+        // written through the cache
+        cachedStorage.put(null, uri, new ByteArrayInputStream("second".getBytes(StandardCharsets.UTF_8)));
+        assertThat(read(cachedStorage, null, uri), is("second"));
+        assertThat(storage.gets.get(), is(3));
+
+        // written by another server
+        storage.put(null, uri, new ByteArrayInputStream("third".getBytes(StandardCharsets.UTF_8)));
+        assertThat(read(cachedStorage, null, uri), is("third"));
+        assertThat(storage.gets.get(), is(4));
+    }
+
+    @Test
+    void evicted() throws Exception {
+        SlowStorage storage = slowStorage();
+        CachedStorage cachedStorage = new CachedStorage(storage, configuration(10));
+        String prefix = "/" + IdUtils.create();
+        URI first = URI.create(prefix + "/first.txt");
+        URI second = URI.create(prefix + "/second.txt");
+        URI tooBig = URI.create(prefix + "/too-big.txt");
+
+        storage.put(null, first, new ByteArrayInputStream("12345".getBytes(StandardCharsets.UTF_8)));
+        storage.put(null, second, new ByteArrayInputStream("123456".getBytes(StandardCharsets.UTF_8)));
+        storage.put(null, tooBig, new ByteArrayInputStream("12345678901".getBytes(StandardCharsets.UTF_8)));
+
+        read(cachedStorage, null, first);
+        read(cachedStorage, null, second);
+        assertThat(storage.gets.get(), is(2));
+
+        // the first file was evicted to make room for the second one
+        read(cachedStorage, null, second);
+        read(cachedStorage, null, first);
+        assertThat(storage.gets.get(), is(3));
+
+        // a file bigger than the cache is never cached
+        read(cachedStorage, null, tooBig);
+        read(cachedStorage, null, tooBig);
+        assertThat(storage.gets.get(), is(5));
+    }
+
+    @Test
+    void openedBeforeRemoved() throws Exception {
+        SlowStorage storage = slowStorage();
+        CachedStorage.Configuration configuration = configuration(1024);
+        CachedStorage cachedStorage = new CachedStorage(storage, configuration);
+        URI uri = URI.create("/" + IdUtils.create() + "/file.txt");
+
+        storage.put(null, uri, new ByteArrayInputStream("first".getBytes(StandardCharsets.UTF_8)));
+        read(cachedStorage, null, uri);
+
+        // an opened stream is still read once its file is removed from the cache
+        try (InputStream inputStream = cachedStorage.get(null, uri)) {
+            cachedStorage.put(null, uri, new ByteArrayInputStream("second".getBytes(StandardCharsets.UTF_8)));
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8), is("first"));
+        }
+        assertThat(storage.gets.get(), is(1));
+
+        // a cached file removed from the disk is downloaded again
+        read(cachedStorage, null, uri);
+        try (var files = Files.list(configuration.path)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        assertThat(read(cachedStorage, null, uri), is("second"));
+        assertThat(storage.gets.get(), is(3));
+    }
+
+    @Test
+    void onlyCleanItsOwnFiles() throws Exception {
+        SlowStorage storage = slowStorage();
+        CachedStorage.Configuration configuration = configuration(1024);
+        URI uri = URI.create("/" + IdUtils.create() + "/file.txt");
+
+        storage.put(null, uri, new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)));
+        read(new CachedStorage(storage, configuration), null, uri);
+
+        Path other = Files.writeString(configuration.path.resolve("other.txt"), "other");
+        Path directory = Files.createDirectory(configuration.path.resolve("directory"));
+        Files.writeString(directory.resolve("nested.txt"), "nested");
+
+        // restarted on a shared directory
+        new CachedStorage(storage, configuration);
+
+        try (var files = Files.list(configuration.path)) {
+            assertThat(files.map(path -> path.getFileName().toString()).sorted().toList(), is(List.of("directory", "other.txt")));
+        }
+        assertThat(Files.readString(other), is("other"));
+    }
+
+    private static String read(CachedStorage cachedStorage, String tenantId, URI uri) throws IOException {
+        try (InputStream inputStream = cachedStorage.get(tenantId, uri)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static SlowStorage slowStorage() throws IOException {
+        SlowStorage storage = new SlowStorage();
+        storage.setBasePath(Path.of("/tmp/unittest"));
+        storage.init();
+
+        return storage;
+    }
+
+    private static CachedStorage.Configuration configuration(long maxSize) throws IOException {
+        CachedStorage.Configuration configuration = new CachedStorage.Configuration();
+        configuration.path = Files.createTempDirectory("storage-cache");
+        configuration.maxSize = maxSize;
+
+        return configuration;
+    }
+
+    /**
+     * A local storage with the latency of a remote one, counting the downloads.
+     */
+    private static class SlowStorage extends LocalStorage {
+        private final AtomicInteger gets = new AtomicInteger();
+
+        @Override
+        public InputStream get(String tenantId, URI uri) throws IOException {
+            gets.incrementAndGet();
+
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return super.get(tenantId, uri);
+        }
+    }
+}
@@ -45,7 +45,7 @@ public class H2Repository<T> extends io.kestra.jdbc.AbstractJdbcRepository<T> {
 
         int affectedRows = context
             .update(table)
-            .set(finalFields)
+            .set(this.updateFields(finalFields))
             .where(AbstractJdbcRepository.field("key").eq(key(entity)))
             .execute();
 
@@ -58,6 +58,12 @@ public class H2Repository<T> extends io.kestra.jdbc.AbstractJdbcRepository<T> {
         }
     }
 
+    @Override
+    public void persistAll(List<T> entities, DSLContext context) {
+        // the upsert is an update then an insert, it can't be batched
+        entities.forEach(entity -> this.persist(entity, context, null));
+    }
+
     public Condition fullTextCondition(List<String> fields, String query) {
         if (query == null || query.equals("*")) {
             return DSL.trueCondition();
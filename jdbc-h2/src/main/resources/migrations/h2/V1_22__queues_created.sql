@@ -0,0 +1,2 @@
+-- The creation date is used to report the age of the oldest message not consumed yet.
+ALTER TABLE queues ADD COLUMN IF NOT EXISTS "created" TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,78 @@
+package io.kestra.runner.h2;
+
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.triggers.multipleflows.AbstractMultipleConditionStorageTest;
+import io.kestra.core.models.triggers.multipleflows.MultipleConditionStorageInterface;
+import io.kestra.core.models.triggers.multipleflows.MultipleConditionWindow;
+import io.kestra.jdbc.JdbcTestUtils;
+import io.kestra.jdbc.runner.JdbcMultipleConditionCache;
+import io.kestra.repository.h2.H2Repository;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class H2MultipleConditionCacheTest extends AbstractMultipleConditionStorageTest {
+    @Inject
+    JdbcTestUtils jdbcTestUtils;
+
+    @Inject
+    @Named("multipleconditions")
+    H2Repository<MultipleConditionWindow> repository;
+
+    protected MultipleConditionStorageInterface multipleConditionStorage() {
+        return new JdbcMultipleConditionCache(new H2MultipleConditionStorage(repository));
+    }
+
+    protected void save(MultipleConditionStorageInterface multipleConditionStorage, Flow flow, List<MultipleConditionWindow> multipleConditionWindows) {
+        multipleConditionStorage.save(multipleConditionWindows);
+        ((JdbcMultipleConditionCache) multipleConditionStorage).flush();
+    }
+
+    @Test
+    void writeBehind() {
+        H2MultipleConditionStorage storage = new H2MultipleConditionStorage(repository);
+        JdbcMultipleConditionCache cache = new JdbcMultipleConditionCache(storage);
+        Flow flow = Flow.builder().namespace("io.kestra.unit").id("write-behind").revision(1).build();
+
+        MultipleConditionWindow window = MultipleConditionWindow.builder()
+            .namespace(flow.getNamespace())
+            .flowId(flow.getId())
+            .conditionId("condition")
+            .start(ZonedDateTime.now().minusMinutes(1))
+            .end(ZonedDateTime.now().plusMinutes(1))
+            .results(Map.of())
+            .build();
+
+        // results saved concurrently on the same window are merged
+        cache.save(List.of(window.with(Map.of("a", true))));
+        cache.save(List.of(window.with(Map.of("b", true))));
+        assertThat(cache.get(flow, "condition").orElseThrow().getResults(), is(Map.of("a", true, "b", true)));
+        assertThat(storage.get(flow, "condition").isPresent(), is(false));
+
+        cache.flush();
+        assertThat(storage.get(flow, "condition").orElseThrow().getResults(), is(Map.of("a", true, "b", true)));
+
+        JdbcMultipleConditionCache reloaded = new JdbcMultipleConditionCache(storage);
+        reloaded.load();
+        assertThat(reloaded.get(flow, "condition").isPresent(), is(true));
+
+        cache.delete(cache.get(flow, "condition").orElseThrow());
+        assertThat(cache.get(flow, "condition").isPresent(), is(false));
+        cache.flush();
+        assertThat(storage.get(flow, "condition").isPresent(), is(false));
+    }
+
+    @BeforeEach
+    protected void init() {
+        jdbcTestUtils.drop();
+        jdbcTestUtils.migrate();
+    }
+}
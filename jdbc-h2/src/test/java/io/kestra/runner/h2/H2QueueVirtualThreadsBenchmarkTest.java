@@ -0,0 +1,98 @@
+package io.kestra.runner.h2;
+
+import io.kestra.core.models.executions.LogEntry;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.utils.IdUtils;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.env.Environment;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Compare the throughput, the number of live threads and the resident memory of the queues
+ * with platform threads and with virtual threads.
+ * <p>
+ * Run it with <code>./gradlew :jdbc-h2:test --tests H2QueueVirtualThreadsBenchmarkTest -Dkestra.benchmark=true</code>,
+ * the results are logged.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "kestra.benchmark", matches = "true")
+class H2QueueVirtualThreadsBenchmarkTest {
+    private static final int SUBSCRIBERS = 200;
+    private static final int MESSAGES = 5_000;
+
+    @SuppressWarnings("unchecked")
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void emitAndReceive(boolean virtualThreads) throws Exception {
+        try (ApplicationContext applicationContext = ApplicationContext.run(Map.of("kestra.executors.virtual-threads", virtualThreads), Environment.TEST)) {
+            QueueInterface<LogEntry> logQueue = applicationContext.getBean(QueueInterface.class, Qualifiers.byName(QueueFactoryInterface.WORKERTASKLOG_NAMED));
+
+            // each subscriber is a poller, like the follow endpoints of the webserver
+            CountDownLatch countDownLatch = new CountDownLatch(MESSAGES);
+            List<Runnable> cancellations = new ArrayList<>();
+            cancellations.add(logQueue.receive(either -> countDownLatch.countDown()));
+            for (int i = 1; i < SUBSCRIBERS; i++) {
+                cancellations.add(logQueue.receive(either -> {}));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                logQueue.emitAsync(LogEntry.builder()
+                    .executionId(IdUtils.create())
+                    .timestamp(Instant.now())
+                    .level(Level.INFO)
+                    .message("message " + i)
+                    .build()
+                );
+            }
+
+            boolean await = countDownLatch.await(5, TimeUnit.MINUTES);
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            log.info(
+                "virtualThreads={}: {} messages in {}ms ({} msg/s), {} live platform threads, rss={}",
+                virtualThreads,
+                MESSAGES,
+                duration,
+                MESSAGES * 1000L / Math.max(1, duration),
+                Thread.activeCount(),
+                rss()
+            );
+
+            cancellations.forEach(Runnable::run);
+            assertThat(await, is(true));
+        }
+    }
+
+    private static String rss() {
+        try {
+            return Files.readAllLines(Path.of("/proc/self/status"))
+                .stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.substring("VmRSS:".length()).trim())
+                .findFirst()
+                .orElse("unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.kestra.runner.mysql;
+
+import io.kestra.jdbc.JdbcTableConfig;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import io.kestra.jdbc.runner.AbstractJdbcQueuePartitioning;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Singleton
+@MysqlQueueEnabled
+public class MysqlQueuePartitioning extends AbstractJdbcQueuePartitioning {
+    private static final String MAX_PARTITION = "pmax";
+    private static final Duration LOCK_TIMEOUT = Duration.ofMinutes(10);
+
+    @Inject
+    public MysqlQueuePartitioning(@Named("queues") JdbcTableConfig jdbcTableConfig, JooqDSLContextWrapper dslContextWrapper) {
+        super(jdbcTableConfig, dslContextWrapper);
+    }
+
+    @Override
+    protected boolean isPartitioned(DSLContext context) {
+        return !this.partitions(context).isEmpty();
+    }
+
+    @Override
+    protected void convert(DSLContext context, Granularity granularity) {
+        // the alters are not transactional, a named lock serializes the conversion across the nodes, held by the session until released
+        String lock = this.tableName + "_partitioning";
+        Integer acquired = context
+            .select(DSL.field("GET_LOCK(?, ?)", Integer.class, lock, LOCK_TIMEOUT.toSeconds()))
+            .fetchOne(0, Integer.class);
+
+        if (acquired == null || acquired != 1) {
+            throw new IllegalStateException("Unable to acquire the lock to partition table " + this.tableName);
+        }
+
+        try {
+            // another node may have converted the table while we were waiting for the lock
+            if (this.isPartitioned(context)) {
+                return;
+            }
+
+            this.convertLocked(context, granularity);
+        } finally {
+            context.select(DSL.field("RELEASE_LOCK(?)", Integer.class, lock)).fetch();
+        }
+    }
+
+    private void convertLocked(DSLContext context, Granularity granularity) {
+        // the rows inserted meanwhile wait for the metadata lock of the alter and are distributed by it with the others
+        Instant bound = Instant.ofEpochSecond(context
+            .select(DSL.field("UNIX_TIMESTAMP(GREATEST(COALESCE(MAX(`created`), NOW()), NOW())) + 1", Long.class))
+            .from(DSL.table(DSL.name(this.tableName)))
+            .fetchOne(0, Long.class)
+        );
+        Instant current = granularity.truncate(bound).plus(granularity.getDuration());
+
+        // every unique key of a partitioned table must contain the partition key
+        context.execute("ALTER TABLE `" + this.tableName + "` DROP PRIMARY KEY, ADD PRIMARY KEY (`offset`, `created`)");
+        context.execute("ALTER TABLE `" + this.tableName + "` PARTITION BY RANGE (UNIX_TIMESTAMP(`created`)) (" +
+            "PARTITION " + legacyPartition(bound) + " VALUES LESS THAN (" + bound.getEpochSecond() + "), " +
+            "PARTITION " + granularity.partition(granularity.truncate(bound)) + " VALUES LESS THAN (" + current.getEpochSecond() + "), " +
+            "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE" +
+            ")"
+        );
+    }
+
+    @Override
+    protected List<String> partitions(DSLContext context) {
+        return context
+            .select(DSL.field("PARTITION_NAME", String.class))
+            .from(DSL.table("information_schema.PARTITIONS"))
+            .where(DSL.field("TABLE_SCHEMA").eq(DSL.field("DATABASE()")))
+            .and(DSL.field("TABLE_NAME").eq(this.tableName))
+            .and(DSL.field("PARTITION_NAME").isNotNull())
+            .fetch(0, String.class);
+    }
+
+    @Override
+    protected void createPartition(DSLContext context, String partition, Instant from, Instant to) {
+        context.execute("ALTER TABLE `" + this.tableName + "` REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+            "PARTITION " + partition + " VALUES LESS THAN (" + to.getEpochSecond() + "), " +
+            "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE" +
+            ")"
+        );
+    }
+
+    @Override
+    protected void dropPartition(DSLContext context, String partition) {
+        context.execute("ALTER TABLE `" + this.tableName + "` DROP PARTITION " + partition);
+    }
+}
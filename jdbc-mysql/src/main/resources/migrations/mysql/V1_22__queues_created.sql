@@ -0,0 +1,2 @@
+-- The creation date is the partition key of the queues table when partitioning is enabled on the cleaner.
+ALTER TABLE queues ADD COLUMN `created` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,2 @@
+-- The version is incremented on each update of an execution, the executor uses it to update its cached executions only if they are up to date.
+ALTER TABLE executions ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0;
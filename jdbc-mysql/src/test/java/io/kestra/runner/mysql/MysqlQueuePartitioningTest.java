@@ -0,0 +1,12 @@
+package io.kestra.runner.mysql;
+
+import io.kestra.jdbc.runner.JdbcQueuePartitioningTest;
+import org.jooq.DSLContext;
+
+class MysqlQueuePartitioningTest extends JdbcQueuePartitioningTest {
+    @Override
+    protected void unpartition(DSLContext context) {
+        context.execute("ALTER TABLE `queues` REMOVE PARTITIONING");
+        context.execute("ALTER TABLE `queues` DROP PRIMARY KEY, ADD PRIMARY KEY (`offset`)");
+    }
+}
@@ -16,6 +16,7 @@ import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.JSONB;
+import org.jooq.Query;
 import org.jooq.Record;
 import org.jooq.RecordMapper;
 import org.jooq.Result;
@@ -60,19 +61,17 @@ public class PostgresRepository<T> extends io.kestra.jdbc.AbstractJdbcRepository
         );
     }
 
-    @SneakyThrows
     @Override
-    public void persist(T entity, DSLContext context, @Nullable  Map<Field<Object>, Object> fields) {
+    protected Query upsert(T entity, DSLContext context, @Nullable  Map<Field<Object>, Object> fields) {
         Map<Field<Object>, Object> finalFields = fields == null ? this.persistFields(entity) : fields;
 
-        context
+        return context
             .insertInto(table)
             .set(AbstractJdbcRepository.field("key"), key(entity))
             .set(finalFields)
             .onConflict(AbstractJdbcRepository.field("key"))
             .doUpdate()
-            .set(finalFields)
-            .execute();
+            .set(this.updateFields(finalFields));
     }
 
     @SuppressWarnings("unchecked")
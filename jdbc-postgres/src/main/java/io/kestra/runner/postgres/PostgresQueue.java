@@ -1,6 +1,5 @@
 package io.kestra.runner.postgres;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.kestra.core.exceptions.DeserializationException;
 import io.kestra.core.queues.QueueException;
 import io.kestra.core.utils.Either;
@@ -12,6 +11,7 @@ import org.jooq.*;
 import org.jooq.Record;
 import org.jooq.impl.DSL;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +20,10 @@ import static org.jooq.impl.DSL.*;
 public class PostgresQueue<T> extends JdbcQueue<T> {
     private boolean disableSeqScan = false;
 
+    private final PostgresQueueNotifier notifier;
+
+    private final String channel;
+
     public PostgresQueue(Class<T> cls, ApplicationContext applicationContext) {
         super(cls, applicationContext);
 
@@ -27,6 +31,12 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
         if (maybeDisableSeScan.isPresent() && maybeDisableSeScan.get()) {
             disableSeqScan = true;
         }
+
+        this.channel = "kestra_queues_" + this.queueName(cls);
+        this.notifier = applicationContext.getBean(PostgresQueueNotifier.class);
+        if (this.notifier.isEnabled()) {
+            this.notifier.register(this.channel);
+        }
     }
 
     @Override
@@ -42,13 +52,37 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
     }
 
     @Override
-    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, @NonNull Integer offset, boolean forUpdate) {
+    protected void notifyConsumers(DSLContext context) {
+        if (this.notifier.isEnabled()) {
+            // delivered on commit, and deduplicated by Postgres inside the same transaction
+            context.select(DSL.function("pg_notify", Object.class, DSL.val(this.channel), DSL.val(""))).fetch();
+        }
+    }
+
+    @Override
+    protected long notificationVersion() {
+        return this.notifier.isEnabled() ? this.notifier.version(this.channel) : 0L;
+    }
+
+    @Override
+    protected void awaitMessages(long version, long sleep) throws InterruptedException {
+        if (this.notifier.isEnabled()) {
+            this.notifier.await(this.channel, version, sleep);
+        } else {
+            super.awaitMessages(version, sleep);
+        }
+    }
+
+    @Override
+    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, @NonNull Integer offset, int pollSize, boolean forUpdate) {
         var select = ctx.select(
                 AbstractJdbcRepository.field("value"),
+                AbstractJdbcRepository.field("binary_value"),
                 AbstractJdbcRepository.field("offset")
             )
             .from(this.table)
-            .where(DSL.condition("type = CAST(? AS queue_type)", this.cls.getName()));
+            .where(this.typeCondition())
+            .and(this.partitionCondition());
 
         if (offset != 0) {
             select = select.and(AbstractJdbcRepository.field("offset").gt(offset));
@@ -62,8 +96,8 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
 
         var limitSelect = select
             .orderBy(AbstractJdbcRepository.field("offset").asc())
-            .limit(configuration.getPollSize());
-        ResultQuery<Record2<Object, Object>> configuredSelect = limitSelect;
+            .limit(pollSize);
+        ResultQuery<Record3<Object, Object, Object>> configuredSelect = limitSelect;
 
         if (forUpdate) {
             configuredSelect = limitSelect.forUpdate().skipLocked();
@@ -75,18 +109,20 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
     }
 
     @Override
-    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate) {
+    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, int pollSize, boolean forUpdate) {
         if (disableSeqScan) {
             ctx.setLocal(name("enable_seqscan"), val("off")).execute();
         }
 
         var select = ctx.select(
                 AbstractJdbcRepository.field("value"),
+                AbstractJdbcRepository.field("binary_value"),
                 AbstractJdbcRepository.field("offset")
             )
             .from(this.table)
-            .where(DSL.condition("type = CAST(? AS queue_type)", this.cls.getName()))
-            .and(AbstractJdbcRepository.field("consumer_" + queueType, Boolean.class).isFalse());
+            .where(this.typeCondition())
+            .and(this.partitionCondition())
+            .and(this.unconsumedCondition(queueType));
 
         if (consumerGroup != null) {
             select = select.and(AbstractJdbcRepository.field("consumer_group").eq(consumerGroup));
@@ -96,8 +132,8 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
 
         var limitSelect = select
             .orderBy(AbstractJdbcRepository.field("offset").asc())
-            .limit(configuration.getPollSize());
-        ResultQuery<Record2<Object, Object>> configuredSelect = limitSelect;
+            .limit(pollSize);
+        ResultQuery<Record3<Object, Object, Object>> configuredSelect = limitSelect;
 
         if (forUpdate) {
             configuredSelect = limitSelect.forUpdate().skipLocked();
@@ -108,6 +144,16 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
             .getFirst();
     }
 
+    @Override
+    protected Condition typeCondition() {
+        return DSL.condition("type = CAST(? AS queue_type)", this.cls.getName());
+    }
+
+    @Override
+    protected Condition unconsumedCondition(String queueType) {
+        return AbstractJdbcRepository.field("consumer_" + queueType, Boolean.class).isFalse();
+    }
+
     @SuppressWarnings("RedundantCast")
     @Override
     protected void updateGroupOffsets(DSLContext ctx, String consumerGroup, String queueType, List<Integer> offsets) {
@@ -127,14 +173,29 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
         update.execute();
     }
 
+    @Override
+    protected boolean supportsBinaryValue() {
+        return true;
+    }
+
     @Override
     protected List<Either<T, DeserializationException>> map(Result<Record> fetch) {
         return fetch
             .map(record -> {
+                // messages are decoded according to how they were produced, whatever the current codec configuration
+                byte[] binaryValue = record.get("binary_value", byte[].class);
+
                 try {
+                    if (binaryValue != null) {
+                        return Either.left(this.codec.decode(binaryValue, cls));
+                    }
+
                     return Either.left(MAPPER.readValue(record.get("value", JSONB.class).data(), cls));
-                } catch (JsonProcessingException e) {
-                    return Either.right(new DeserializationException(e, record.get("value", String.class)));
+                } catch (IOException e) {
+                    return Either.right(new DeserializationException(
+                        e,
+                        binaryValue != null ? this.codec.toJson(binaryValue) : record.get("value", String.class)
+                    ));
                 }
             });
     }
@@ -0,0 +1,234 @@
+package io.kestra.runner.postgres;
+
+import io.kestra.core.utils.ExecutorsUtils;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+
+/**
+ * Listen to the Postgres notifications sent by {@link PostgresQueue} on message production,
+ * and wake up the consumers waiting for them.
+ * <p>
+ * A single connection, borrowed from the pool while listening, is used for all queue types, notifications are only a wake-up signal:
+ * consumers still fetch the messages from the queues table and still poll on a fallback interval,
+ * so a lost notification or a broken connection only adds latency.
+ */
+@Slf4j
+@Singleton
+@PostgresQueueEnabled
+public class PostgresQueueNotifier {
+    private final DataSource dataSource;
+    private final ExecutorsUtils executorsUtils;
+    private final Configuration configuration;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<String> listened = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private volatile boolean listening = false;
+    private ExecutorService executorService;
+
+    @Inject
+    public PostgresQueueNotifier(DataSource dataSource, ExecutorsUtils executorsUtils, Configuration configuration) {
+        this.dataSource = dataSource;
+        this.executorsUtils = executorsUtils;
+        this.configuration = configuration;
+    }
+
+    public boolean isEnabled() {
+        return this.configuration.isEnabled();
+    }
+
+    /**
+     * Register a channel to listen to, the listener thread is started on the first registration.
+     */
+    public void register(String channel) {
+        this.channels.computeIfAbsent(channel, s -> new Channel());
+
+        if (this.started.compareAndSet(false, true)) {
+            this.executorService = executorsUtils.singleThreadExecutor("postgres-queue-notifier");
+            this.executorService.execute(this::run);
+        }
+    }
+
+    public long version(String channel) {
+        return this.channels.get(channel).version;
+    }
+
+    /**
+     * Whether the notifications of the channel are listened to, consumers only poll on a fallback interval otherwise.
+     */
+    boolean isListening(String channel) {
+        return this.listening && this.listened.contains(channel);
+    }
+
+    /**
+     * Wait until a notification is received on the channel after the given version.
+     * When the listener is not connected, it falls back to a plain sleep of the given duration.
+     */
+    public void await(String channel, long version, long sleep) throws InterruptedException {
+        Channel current = this.channels.get(channel);
+
+        if (!this.isListening(channel)) {
+            Thread.sleep(sleep);
+            return;
+        }
+
+        long remaining = TimeUnit.MILLISECONDS.toNanos(Math.max(sleep, this.configuration.getFallbackPollInterval().toMillis()));
+
+        // a lock and not a monitor, a virtual thread waiting on a monitor pins its carrier thread
+        current.lock.lock();
+        try {
+            while (current.version == version && this.listening) {
+                if (remaining <= 0) {
+                    return;
+                }
+
+                remaining = current.signal.awaitNanos(remaining);
+            }
+        } finally {
+            current.lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("BusyWait")
+    private void run() {
+        while (!this.closed.get()) {
+            try (Connection connection = this.dataSource.getConnection()) {
+                // LISTEN must not be run inside a transaction that is never committed
+                connection.setAutoCommit(true);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                this.listening = true;
+                log.debug("Listening to queue notifications");
+
+                try {
+                    while (!this.closed.get()) {
+                        this.listen(connection);
+
+                        PGNotification[] notifications = pgConnection.getNotifications((int) this.configuration.getListenTimeout().toMillis());
+
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                this.signal(notification.getName());
+                            }
+                        }
+                    }
+                } finally {
+                    this.unlisten(connection);
+                }
+            } catch (SQLException e) {
+                if (!this.closed.get()) {
+                    log.warn("Unable to listen to queue notifications, falling back to polling", e);
+                }
+            } finally {
+                this.listening = false;
+                this.listened.clear();
+                // wake up all waiters so that they switch to the polling fallback
+                this.channels.keySet().forEach(this::signal);
+            }
+
+            try {
+                Thread.sleep(this.configuration.getReconnectInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        for (String channel : this.channels.keySet()) {
+            if (!this.listened.contains(channel)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + channel + "\"");
+                }
+
+                this.listened.add(channel);
+            }
+        }
+    }
+
+    /**
+     * The connection goes back to the pool, it must not keep listening:
+     * its next borrower would have the notifications buffered in the driver and never read them.
+     */
+    private void unlisten(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN *");
+
+            // drop the notifications received before the UNLISTEN
+            connection.unwrap(PGConnection.class).getNotifications();
+        } catch (SQLException e) {
+            // the connection is broken, the pool evicts it
+            log.debug("Unable to stop listening to queue notifications", e);
+        }
+    }
+
+    private void signal(String name) {
+        Channel channel = this.channels.get(name);
+
+        if (channel != null) {
+            channel.lock.lock();
+            try {
+                channel.version++;
+                channel.signal.signalAll();
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.listening = false;
+        this.channels.keySet().forEach(this::signal);
+
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+        }
+    }
+
+    private static class Channel {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition signal = this.lock.newCondition();
+        private volatile long version = 0;
+    }
+
+    @ConfigurationProperties("kestra.queue.postgres.notification")
+    @Getter
+    public static class Configuration {
+        boolean enabled = false;
+
+        // maximum time a consumer waits for a notification before polling anyway
+        Duration fallbackPollInterval = Duration.ofSeconds(5);
+
+        Duration listenTimeout = Duration.ofMillis(500);
+
+        Duration reconnectInterval = Duration.ofSeconds(5);
+    }
+}
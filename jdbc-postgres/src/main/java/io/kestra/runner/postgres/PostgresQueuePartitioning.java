@@ -0,0 +1,150 @@
+package io.kestra.runner.postgres;
+
+import io.kestra.jdbc.JdbcTableConfig;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import io.kestra.jdbc.runner.AbstractJdbcQueuePartitioning;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Singleton
+@PostgresQueueEnabled
+@Slf4j
+public class PostgresQueuePartitioning extends AbstractJdbcQueuePartitioning {
+    private static final String DEFAULT_PARTITION = "default";
+
+    @Inject
+    public PostgresQueuePartitioning(@Named("queues") JdbcTableConfig jdbcTableConfig, JooqDSLContextWrapper dslContextWrapper) {
+        super(jdbcTableConfig, dslContextWrapper);
+    }
+
+    @Override
+    protected boolean isPartitioned(DSLContext context) {
+        return context.fetchExists(
+            DSL.selectOne()
+                .from(DSL.table("pg_partitioned_table"))
+                .where(DSL.field("partrelid").eq(DSL.field("to_regclass(?)", Object.class, this.tableName)))
+        );
+    }
+
+    @Override
+    protected void convert(DSLContext context, Granularity granularity) {
+        context.execute("LOCK TABLE " + this.tableName + " IN ACCESS EXCLUSIVE MODE");
+
+        // another node may have converted the table while we were waiting for the lock
+        if (this.isPartitioned(context)) {
+            return;
+        }
+
+        String sequence = context
+            .select(DSL.field("pg_get_serial_sequence(?, 'offset')", String.class, this.tableName))
+            .fetchOne(0, String.class);
+
+        // above every existing row as no one can insert while we hold the lock, rounded up to the second of the partition name
+        Instant bound = Instant.ofEpochSecond(context
+            .select(DSL.field("floor(extract(epoch FROM greatest(max(created), now()))) + 1", Long.class))
+            .from(DSL.table(this.tableName))
+            .fetchOne(0, Long.class)
+        );
+
+        String legacy = this.partitionTable(legacyPartition(bound));
+        Instant current = granularity.truncate(bound).plus(granularity.getDuration());
+
+        context.execute("ALTER TABLE " + this.tableName + " RENAME TO " + legacy);
+        context.execute("DROP TRIGGER IF EXISTS queues_updated ON " + legacy);
+        // a unique constraint on a partitioned table must contain the partition key
+        context.execute("ALTER TABLE " + legacy + " DROP CONSTRAINT IF EXISTS queues_pkey");
+
+        // the legacy rows are checked once by the constraint validation, which proves the partition bound so the attach doesn't scan them again
+        context.execute("ALTER TABLE " + legacy + " ADD CONSTRAINT " + legacy + "_bound CHECK (created < " + DSL.inline(bound.toString()) + ") NOT VALID");
+        context.execute("ALTER TABLE " + legacy + " VALIDATE CONSTRAINT " + legacy + "_bound");
+
+        context.execute("CREATE TABLE " + this.tableName + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING INDEXES) PARTITION BY RANGE (created)");
+        context.execute("ALTER TABLE " + this.tableName + " ADD PRIMARY KEY (\"offset\", created)");
+        context.execute("ALTER TABLE " + this.tableName + " ATTACH PARTITION " + legacy + " FOR VALUES FROM (MINVALUE) TO (" + DSL.inline(bound.toString()) + ")");
+        this.createPartition(context, granularity.partition(granularity.truncate(bound)), bound, current);
+        context.execute("CREATE TABLE " + this.partitionTable(DEFAULT_PARTITION) + " PARTITION OF " + this.tableName + " DEFAULT");
+
+        if (sequence != null) {
+            context.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + this.tableName + ".\"offset\"");
+        }
+
+        context.execute("CREATE TRIGGER queues_updated BEFORE UPDATE ON " + this.tableName + " FOR EACH ROW EXECUTE PROCEDURE UPDATE_UPDATED_DATETIME()");
+    }
+
+    @Override
+    protected List<String> partitions(DSLContext context) {
+        String prefix = this.tableName + "_";
+
+        return context
+            .select(DSL.field("child.relname", String.class))
+            .from(DSL.table("pg_inherits"))
+            .join(DSL.table("pg_class").as("child")).on(DSL.field("pg_inherits.inhrelid").eq(DSL.field("child.oid")))
+            .where(DSL.field("pg_inherits.inhparent").eq(DSL.field("to_regclass(?)", Object.class, this.tableName)))
+            .fetch(0, String.class)
+            .stream()
+            .filter(name -> name.startsWith(prefix))
+            .map(name -> name.substring(prefix.length()))
+            .toList();
+    }
+
+    @Override
+    protected List<Instant> defaultPartitionPeriods(DSLContext context, Granularity granularity) {
+        String unit = granularity == Granularity.DAILY ? "day" : "hour";
+
+        return context
+            .selectDistinct(DSL.field("date_trunc(" + DSL.inline(unit) + ", created AT TIME ZONE 'UTC')", LocalDateTime.class))
+            .from(DSL.table(this.partitionTable(DEFAULT_PARTITION)))
+            .fetch(0, LocalDateTime.class)
+            .stream()
+            .map(period -> period.toInstant(ZoneOffset.UTC))
+            .toList();
+    }
+
+    @Override
+    protected void createPartition(DSLContext context, String partition, Instant from, Instant to) {
+        String range = " FOR VALUES FROM (" + DSL.inline(from.toString()) + ") TO (" + DSL.inline(to.toString()) + ")";
+        String defaultTable = this.partitionTable(DEFAULT_PARTITION);
+        Condition period = DSL.field("created", OffsetDateTime.class).greaterOrEqual(from.atOffset(ZoneOffset.UTC))
+            .and(DSL.field("created", OffsetDateTime.class).lessThan(to.atOffset(ZoneOffset.UTC)));
+
+        if (!context.fetchExists(DSL.selectOne().from(DSL.table(defaultTable)).where(period))) {
+            context.execute("CREATE TABLE IF NOT EXISTS " + this.partitionTable(partition) + " PARTITION OF " + this.tableName + range);
+            return;
+        }
+
+        // a partition can't be created while the default one has rows of its period, they're moved to a detached table attached afterward,
+        // the default partition is locked so no row of the period is inserted in between
+        context.execute("LOCK TABLE " + defaultTable + " IN ACCESS EXCLUSIVE MODE");
+        context.execute("CREATE TABLE " + this.partitionTable(partition) + " (LIKE " + this.tableName + " INCLUDING DEFAULTS)");
+        int moved = context.execute(
+            "WITH moved AS (DELETE FROM " + defaultTable + " WHERE created >= ? AND created < ? RETURNING *) " +
+                "INSERT INTO " + this.partitionTable(partition) + " SELECT * FROM moved",
+            from.atOffset(ZoneOffset.UTC),
+            to.atOffset(ZoneOffset.UTC)
+        );
+        context.execute("ALTER TABLE " + this.tableName + " ATTACH PARTITION " + this.partitionTable(partition) + range);
+
+        log.warn("Moved {} rows of the default partition to partition {} of table {}", moved, partition, this.tableName);
+    }
+
+    @Override
+    protected void dropPartition(DSLContext context, String partition) {
+        context.execute("ALTER TABLE " + this.tableName + " DETACH PARTITION " + this.partitionTable(partition));
+        context.execute("DROP TABLE " + this.partitionTable(partition));
+    }
+
+    private String partitionTable(String partition) {
+        return this.tableName + "_" + partition;
+    }
+}
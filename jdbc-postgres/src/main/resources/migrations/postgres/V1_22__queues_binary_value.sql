@@ -0,0 +1,4 @@
+-- Messages encoded by a binary codec are stored in binary_value instead of the JSONB value column.
+ALTER TABLE queues ADD COLUMN IF NOT EXISTS binary_value BYTEA;
+
+ALTER TABLE queues ALTER COLUMN value DROP NOT NULL;
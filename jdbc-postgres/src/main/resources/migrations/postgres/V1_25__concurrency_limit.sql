@@ -0,0 +1,6 @@
+-- The running count of each flow with a concurrency limit, maintained by the executor with conditional updates of its column.
+CREATE TABLE IF NOT EXISTS concurrency_limit (
+    key VARCHAR(250) NOT NULL PRIMARY KEY,
+    value JSONB NOT NULL,
+    running INT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,11 @@
+package io.kestra.runner.postgres;
+
+import io.kestra.jdbc.runner.JdbcQueueTest;
+import io.micronaut.context.annotation.Property;
+
+@Property(name = "kestra.jdbc.queues.codec.format", value = "SMILE")
+@Property(name = "kestra.jdbc.queues.codec.compression", value = "DEFLATE")
+@Property(name = "kestra.jdbc.queues.codec.compression-threshold", value = "0")
+class PostgresQueueBinaryTest extends JdbcQueueTest {
+
+}
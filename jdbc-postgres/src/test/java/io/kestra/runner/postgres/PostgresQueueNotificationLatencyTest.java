@@ -0,0 +1,72 @@
+package io.kestra.runner.postgres;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.runners.Indexer;
+import io.kestra.core.utils.Await;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.jdbc.JdbcTestUtils;
+import io.kestra.plugin.core.debug.Return;
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+@Property(name = "kestra.queue.postgres.notification.enabled", value = "true")
+@Property(name = "kestra.queue.postgres.notification.fallback-poll-interval", value = "30s")
+@Property(name = "kestra.jdbc.queues.min-poll-interval", value = "30s")
+@Property(name = "kestra.jdbc.queues.max-poll-interval", value = "30s")
+class PostgresQueueNotificationLatencyTest {
+    @Inject
+    @Named(QueueFactoryInterface.FLOW_NAMED)
+    QueueInterface<Flow> flowQueue;
+
+    @Inject
+    PostgresQueueNotifier notifier;
+
+    @Inject
+    JdbcTestUtils jdbcTestUtils;
+
+    @Test
+    void wakeUpBeforeThePollInterval() throws InterruptedException, QueueException, TimeoutException {
+        // before listening, the consumers fall back to the poll interval
+        Await.until(() -> notifier.isListening("kestra_queues_flow"), Duration.ofMillis(50), Duration.ofSeconds(10));
+
+        CountDownLatch countDownLatch = new CountDownLatch(1);
+        Flux<Flow> receive = TestsUtils.receive(flowQueue, Indexer.class, either -> countDownLatch.countDown());
+
+        // the consumer polled the empty queue and now waits for 30s
+        Thread.sleep(500);
+        flowQueue.emit(Flow.builder()
+            .id(IdUtils.create())
+            .namespace("io.kestra.f1")
+            .tasks(Collections.singletonList(Return.builder().id("test").type(Return.class.getName()).format("test").build()))
+            .build()
+        );
+
+        assertThat(countDownLatch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(receive.blockLast().getNamespace(), is("io.kestra.f1"));
+    }
+
+    @BeforeEach
+    protected void init() {
+        jdbcTestUtils.drop();
+        jdbcTestUtils.migrate();
+    }
+}
@@ -0,0 +1,72 @@
+package io.kestra.runner.postgres;
+
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.jdbc.runner.AbstractJdbcQueuePartitioning;
+import io.kestra.jdbc.runner.JdbcQueuePartitioningTest;
+import io.kestra.plugin.core.debug.Return;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class PostgresQueuePartitioningTest extends JdbcQueuePartitioningTest {
+    @Test
+    void moveDefaultPartitionRows() throws QueueException {
+        queuePartitioning.maintain(AbstractJdbcQueuePartitioning.Granularity.HOURLY, 2, Duration.ofDays(7));
+
+        // created after the partitions ahead, as when the maintenance is late
+        Instant created = Instant.now().plus(Duration.ofDays(1));
+        flowQueue.emit(Flow.builder()
+            .id(IdUtils.create())
+            .namespace("io.kestra.late")
+            .tasks(Collections.singletonList(Return.builder().id("test").type(Return.class.getName()).format("test").build()))
+            .build()
+        );
+        dslContextWrapper.transaction(configuration -> DSL.using(configuration)
+            .update(DSL.table(DSL.name("queues")))
+            .set(DSL.field(DSL.name("created")), created.atOffset(ZoneOffset.UTC))
+            .execute()
+        );
+        assertThat(this.count("queues_default"), is(1));
+
+        queuePartitioning.maintain(AbstractJdbcQueuePartitioning.Granularity.HOURLY, 2, Duration.ofDays(7));
+
+        String partition = AbstractJdbcQueuePartitioning.Granularity.HOURLY.partition(AbstractJdbcQueuePartitioning.Granularity.HOURLY.truncate(created));
+        assertThat(this.count("queues_default"), is(0));
+        assertThat(this.count("queues_" + partition), is(1));
+    }
+
+    private int count(String table) {
+        return dslContextWrapper.transactionResult(configuration -> DSL.using(configuration).fetchCount(DSL.table(DSL.name(table))));
+    }
+
+    @Override
+    protected void unpartition(DSLContext context) {
+        String sequence = context
+            .select(DSL.field("pg_get_serial_sequence('queues', 'offset')", String.class))
+            .fetchOne(0, String.class);
+
+        context.execute("ALTER TABLE queues RENAME TO queues_partitioned");
+        context.execute("CREATE TABLE queues (LIKE queues_partitioned INCLUDING DEFAULTS INCLUDING INDEXES)");
+        // the table created by the migrations has no primary key
+        context
+            .select(DSL.field("conname", String.class))
+            .from(DSL.table("pg_constraint"))
+            .where(DSL.field("conrelid").eq(DSL.field("'queues'::regclass")))
+            .and(DSL.field("contype").eq("p"))
+            .fetch(0, String.class)
+            .forEach(constraint -> context.execute("ALTER TABLE queues DROP CONSTRAINT " + constraint));
+        context.execute("ALTER SEQUENCE " + sequence + " OWNED BY queues.\"offset\"");
+        context.execute("DROP TABLE queues_partitioned");
+        context.execute("CREATE TRIGGER queues_updated BEFORE UPDATE ON queues FOR EACH ROW EXECUTE PROCEDURE UPDATE_UPDATED_DATETIME()");
+    }
+}
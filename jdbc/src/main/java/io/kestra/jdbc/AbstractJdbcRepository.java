@@ -44,6 +44,12 @@ public abstract class AbstractJdbcRepository<T> {
     @Getter
     protected Table<Record> table;
 
+    private final String tableName;
+
+    // incremented on each update of a row when set, to detect concurrent updates
+    @Getter
+    protected Field<Long> versionField;
+
     @SuppressWarnings("unchecked")
     public AbstractJdbcRepository(
         JdbcTableConfig tableConfig,
@@ -53,6 +59,12 @@ public abstract class AbstractJdbcRepository<T> {
         this.queueService = queueService;
         this.dslContextWrapper = dslContextWrapper;
         this.table = DSL.table(tableConfig.table());
+        this.tableName = tableConfig.table();
+    }
+
+    public void setVersionColumn(String column) {
+        // qualified, as an upsert can also reference the values of the row to insert
+        this.versionField = DSL.field(DSL.name(DSL.unquotedName(this.tableName), DSL.quotedName(column)), Long.class);
     }
 
     abstract public Condition fullTextCondition(List<String> fields, String query);
@@ -74,6 +86,20 @@ public abstract class AbstractJdbcRepository<T> {
         );
     }
 
+    /**
+     * The fields to set when updating an existing row, the persisted fields with the version incremented if any.
+     */
+    public Map<Field<Object>, Object> updateFields(Map<Field<Object>, Object> fields) {
+        if (this.versionField == null) {
+            return fields;
+        }
+
+        Map<Field<Object>, Object> updateFields = new HashMap<>(fields);
+        updateFields.put(io.kestra.jdbc.repository.AbstractJdbcRepository.field(this.versionField.getName()), this.versionField.plus(1));
+
+        return updateFields;
+    }
+
     public void persist(T entity) {
         this.persist(entity, null);
     }
@@ -85,15 +111,31 @@ public abstract class AbstractJdbcRepository<T> {
     }
 
     public void persist(T entity, DSLContext dslContext, Map<Field<Object>, Object> fields) {
-        Map<Field<Object>, Object> finalFields = fields == null ? this.persistFields(entity) : fields;
+        this.upsert(entity, dslContext, fields).execute();
+    }
+
+    /**
+     * Persist all the entities in a single JDBC batch, one upsert per entity executed in order.
+     */
+    public void persistAll(List<T> entities, DSLContext dslContext) {
+        if (entities.isEmpty()) {
+            return;
+        }
 
         dslContext
+            .batch(entities.stream().map(entity -> this.upsert(entity, dslContext, null)).toList())
+            .execute();
+    }
+
+    protected Query upsert(T entity, DSLContext dslContext, Map<Field<Object>, Object> fields) {
+        Map<Field<Object>, Object> finalFields = fields == null ? this.persistFields(entity) : fields;
+
+        return dslContext
             .insertInto(table)
             .set(io.kestra.jdbc.repository.AbstractJdbcRepository.field("key"), key(entity))
             .set(finalFields)
             .onDuplicateKeyUpdate()
-            .set(finalFields)
-            .execute();
+            .set(this.updateFields(finalFields));
     }
 
     public int delete(T entity) {
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import io.kestra.core.serializers.JacksonMapper;
 
 import java.io.IOException;
@@ -18,6 +20,8 @@ public abstract class JdbcMapper {
         .withZone(ZoneOffset.UTC);
     private static final DateTimeFormatter ZONED_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
     private static ObjectMapper MAPPER;
+    private static ObjectMapper SMILE_MAPPER;
+    private static ObjectMapper CBOR_MAPPER;
 
     public static ObjectMapper of() {
         if (MAPPER == null) {
@@ -43,4 +47,26 @@ public abstract class JdbcMapper {
 
         return MAPPER;
     }
+
+    /**
+     * Same configuration as {@link #of()} but producing the binary Smile format.
+     */
+    public static ObjectMapper ofSmile() {
+        if (SMILE_MAPPER == null) {
+            SMILE_MAPPER = of().copyWith(new SmileFactory());
+        }
+
+        return SMILE_MAPPER;
+    }
+
+    /**
+     * Same configuration as {@link #of()} but producing the binary CBOR format.
+     */
+    public static ObjectMapper ofCbor() {
+        if (CBOR_MAPPER == null) {
+            CBOR_MAPPER = of().copyWith(new CBORFactory());
+        }
+
+        return CBOR_MAPPER;
+    }
 }
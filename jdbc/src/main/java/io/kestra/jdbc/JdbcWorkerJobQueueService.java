@@ -18,6 +18,7 @@ import java.io.Closeable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 
 @Singleton
 @Slf4j
@@ -39,8 +40,15 @@ public class JdbcWorkerJobQueueService implements Closeable {
     }
 
     public Runnable receive(String consumerGroup, Class<?> queueType, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
+        return this.receive(consumerGroup, queueType, null, consumer);
+    }
+
+    /**
+     * Claim at most as many jobs as the capacity of the worker, so the jobs it can't start yet are left to the other workers.
+     */
+    public Runnable receive(String consumerGroup, Class<?> queueType, IntSupplier capacity, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
 
-        this.disposable.set(workerTaskQueue.receiveTransaction(consumerGroup, queueType, (dslContext, eithers) -> {
+        this.disposable.set(workerTaskQueue.receiveTransaction(consumerGroup, queueType, capacity, (dslContext, eithers) -> {
 
             Worker worker = serviceRegistry.waitForServiceAndGet(Service.ServiceType.WORKER).unwrap();
 
@@ -2,6 +2,7 @@ package io.kestra.jdbc.repository;
 
 import io.kestra.core.events.CrudEvent;
 import io.kestra.core.events.CrudEventType;
+import io.kestra.core.metrics.MetricRegistry;
 import io.kestra.core.models.executions.Execution;
 import io.kestra.core.models.executions.TaskRun;
 import io.kestra.core.models.executions.statistics.DailyExecutionStatistics;
@@ -20,6 +21,7 @@ import io.kestra.core.runners.ExecutorState;
 import io.kestra.core.utils.DateUtils;
 import io.kestra.core.utils.NamespaceUtils;
 import io.kestra.jdbc.runner.AbstractJdbcExecutorStateStorage;
+import io.kestra.jdbc.runner.JdbcExecutorStateCache;
 import io.kestra.jdbc.runner.JdbcIndexerInterface;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.event.ApplicationEventPublisher;
@@ -54,6 +56,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -70,6 +73,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
 
     private QueueInterface<Execution> executionQueue;
     private NamespaceUtils namespaceUtils;
+    private JdbcExecutorStateCache executorStateCache;
 
     @SuppressWarnings("unchecked")
     public AbstractJdbcExecutionRepository(
@@ -78,6 +82,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         AbstractJdbcExecutorStateStorage executorStateStorage
     ) {
         this.jdbcRepository = jdbcRepository;
+        this.jdbcRepository.setVersionColumn("version");
         this.executorStateStorage = executorStateStorage;
         this.eventPublisher = applicationContext.getBean(ApplicationEventPublisher.class);
         this.namespaceUtils = applicationContext.getBean(NamespaceUtils.class);
@@ -95,6 +100,18 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         return this.executionQueue;
     }
 
+    // only used by the executor, so created on the first lock
+    private synchronized JdbcExecutorStateCache executorStateCache() {
+        if (this.executorStateCache == null) {
+            JdbcExecutorStateCache.Configuration configuration = applicationContext.getBean(JdbcExecutorStateCache.Configuration.class);
+            if (configuration.getEnabled()) {
+                this.executorStateCache = new JdbcExecutorStateCache(configuration, applicationContext.getBean(MetricRegistry.class));
+            }
+        }
+
+        return this.executorStateCache;
+    }
+
     public Boolean isTaskRunEnabled() {
         return false;
     }
@@ -942,6 +959,13 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         return execution;
     }
 
+    @Override
+    public List<Execution> saveAll(DSLContext dslContext, List<Execution> executions) {
+        this.jdbcRepository.persistAll(executions, dslContext);
+
+        return executions;
+    }
+
     @Override
     public Execution update(Execution execution) {
         return this.jdbcRepository
@@ -949,7 +973,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
             .transactionResult(configuration -> {
                 DSL.using(configuration)
                     .update(this.jdbcRepository.getTable())
-                    .set(this.jdbcRepository.persistFields((execution)))
+                    .set(this.jdbcRepository.updateFields(this.jdbcRepository.persistFields(execution)))
                     .where(field("key").eq(execution.getId()))
                     .execute();
 
@@ -982,33 +1006,93 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         return this.jdbcRepository.delete(execution);
     }
 
+    /**
+     * Apply the function to the current execution and executor state, and persist the result.
+     * <p>
+     * The row is always locked first, so the function is applied once and on the current state, as it has side effects like emitting
+     * messages. The last execution and executor state persisted by this executor are cached: when the version of the locked row is
+     * still the cached one, they are used without reading them again. Otherwise, they are read from the database.
+     */
     public Executor lock(String executionId, Function<Pair<Execution, ExecutorState>, Pair<Executor, ExecutorState>> function) {
+        return this.lock(executionId, (context, pair) -> function.apply(pair));
+    }
+
+    /**
+     * Same as {@link #lock(String, Function)}, the function also receives the context of the lock transaction
+     * so its own writes are committed or rolled back with the execution.
+     */
+    public Executor lock(String executionId, BiFunction<DSLContext, Pair<Execution, ExecutorState>, Pair<Executor, ExecutorState>> function) {
+        JdbcExecutorStateCache cache = this.executorStateCache();
+
         return this.jdbcRepository
             .getDslContextWrapper()
             .transactionResult(configuration -> {
                 DSLContext context = DSL.using(configuration);
 
-                SelectForUpdateOfStep<Record1<Object>> from = context
-                    .select(field("value"))
+                JdbcExecutorStateCache.Entry cached = cache == null ? null : cache.get(executionId);
+                if (cached != null) {
+                    Long version = context
+                        .select(this.jdbcRepository.getVersionField())
+                        .from(this.jdbcRepository.getTable())
+                        .where(field("key").eq(executionId))
+                        .and(this.defaultFilter())
+                        .forUpdate()
+                        .fetchOne(this.jdbcRepository.getVersionField());
+
+                    if (version != null && version == cached.version()) {
+                        try {
+                            Pair<Executor, ExecutorState> pair = function.apply(context, Pair.of(cached.execution(), cached.executorState()));
+
+                            if (pair == null) {
+                                // the executor state may have been modified without being persisted
+                                cache.evict(executionId);
+
+                                return null;
+                            }
+
+                            this.jdbcRepository.persist(pair.getKey().getExecution(), context, null);
+                            this.executorStateStorage.save(context, pair.getRight());
+                            cache.put(pair.getKey().getExecution(), pair.getRight(), version + 1);
+
+                            return pair.getKey();
+                        } catch (RuntimeException e) {
+                            // the cached executor state is modified in place, it must not outlive the rolled back transaction
+                            cache.evict(executionId);
+
+                            throw e;
+                        }
+                    }
+
+                    cache.conflict(executionId);
+                }
+
+                SelectForUpdateOfStep<Record2<Object, Long>> from = context
+                    .select(field("value"), this.jdbcRepository.getVersionField())
                     .from(this.jdbcRepository.getTable())
                     .where(field("key").eq(executionId))
                     .and(this.defaultFilter())
                     .forUpdate();
 
-                Optional<Execution> execution = this.jdbcRepository.fetchOne(from);
+                Record2<Object, Long> record = from.fetchAny();
 
                 // not ready for now, skip and wait for a first state
-                if (execution.isEmpty()) {
+                if (record == null) {
                     return null;
                 }
 
-                ExecutorState executorState = executorStateStorage.get(context, execution.get());
-                Pair<Executor, ExecutorState> pair = function.apply(Pair.of(execution.get(), executorState));
+                Execution execution = this.jdbcRepository.map(record);
+                ExecutorState executorState = executorStateStorage.get(context, execution);
+                Pair<Executor, ExecutorState> pair = function.apply(context, Pair.of(execution, executorState));
 
                 if (pair != null) {
                     this.jdbcRepository.persist(pair.getKey().getExecution(), context, null);
                     this.executorStateStorage.save(context, pair.getRight());
 
+                    if (cache != null) {
+                        // the row exists so it has been updated
+                        cache.put(pair.getKey().getExecution(), pair.getRight(), record.value2() + 1);
+                    }
+
                     return pair.getKey();
                 }
 
@@ -1016,6 +1100,15 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
             });
     }
 
+    /**
+     * Remove an ended execution from the executor cache.
+     */
+    public void evict(Execution execution) {
+        if (this.executorStateCache != null) {
+            this.executorStateCache.evict(execution.getId());
+        }
+    }
+
     @Override
     public Function<String, String> sortMapping() throws IllegalArgumentException {
         Map<String, String> mapper = Map.of(
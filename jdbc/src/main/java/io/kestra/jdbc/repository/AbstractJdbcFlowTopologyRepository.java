@@ -138,6 +138,13 @@ public abstract class AbstractJdbcFlowTopologyRepository extends AbstractJdbcRep
         return flowTopology;
     }
 
+    @Override
+    public List<FlowTopology> saveAll(DSLContext dslContext, List<FlowTopology> flowTopologies) {
+        this.jdbcRepository.persistAll(flowTopologies, dslContext);
+
+        return flowTopologies;
+    }
+
     protected Condition buildTenantCondition(String prefix, String tenantId) {
         return tenantId == null ? field(prefix + "_tenant_id").isNull() : field(prefix + "_tenant_id").eq(tenantId);
     }
@@ -363,6 +363,13 @@ public abstract class AbstractJdbcLogRepository extends AbstractJdbcRepository i
         return logEntry;
     }
 
+    @Override
+    public List<LogEntry> saveAll(DSLContext dslContext, List<LogEntry> logEntries) {
+        this.jdbcRepository.persistAll(logEntries, dslContext);
+
+        return logEntries;
+    }
+
     @Override
     public void deleteByQuery(String tenantId, String executionId, String taskId, String taskRunId, Level minLevel, Integer attempt) {
         this.jdbcRepository
@@ -163,6 +163,13 @@ public abstract class AbstractJdbcMetricRepository extends AbstractJdbcRepositor
         return metric;
     }
 
+    @Override
+    public List<MetricEntry> saveAll(DSLContext dslContext, List<MetricEntry> metrics) {
+        this.jdbcRepository.persistAll(metrics, dslContext);
+
+        return metrics;
+    }
+
     private List<String> queryDistinct(String tenantId, Condition condition, String field) {
         return this.jdbcRepository
             .getDslContextWrapper()
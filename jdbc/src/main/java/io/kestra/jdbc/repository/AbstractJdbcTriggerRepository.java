@@ -163,6 +163,13 @@ public abstract class AbstractJdbcTriggerRepository extends AbstractJdbcReposito
         return trigger;
     }
 
+    @Override
+    public List<Trigger> saveAll(DSLContext dslContext, List<Trigger> triggers) {
+        this.jdbcRepository.persistAll(triggers, dslContext);
+
+        return triggers;
+    }
+
     public Trigger create(Trigger trigger) {
         return this.jdbcRepository
             .getDslContextWrapper()
@@ -0,0 +1,120 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.runners.ConcurrencyLimit;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.jdbc.repository.AbstractJdbcRepository;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+
+import java.util.Optional;
+
+/**
+ * The running count of the flows with a concurrency limit, updated by the executor on each execution moving into or out of
+ * the RUNNING and PAUSED states, so it can admit an execution without counting the executions of the flow.
+ * <p>
+ * The count is kept in its own column and only changed with conditional updates, so concurrent executors can't both take
+ * the last slot of a flow; the one of the value is not maintained.
+ */
+public abstract class AbstractJdbcConcurrencyLimitStorage extends AbstractJdbcRepository {
+    private static final Field<Integer> RUNNING = AbstractJdbcRepository.field("running", Integer.class);
+
+    protected io.kestra.jdbc.AbstractJdbcRepository<ConcurrencyLimit> jdbcRepository;
+
+    public AbstractJdbcConcurrencyLimitStorage(io.kestra.jdbc.AbstractJdbcRepository<ConcurrencyLimit> jdbcRepository) {
+        this.jdbcRepository = jdbcRepository;
+    }
+
+    public Optional<ConcurrencyLimit> findById(String tenantId, String namespace, String flowId) {
+        return this.jdbcRepository
+            .getDslContextWrapper()
+            .transactionResult(configuration -> this.findById(DSL.using(configuration), tenantId, namespace, flowId));
+    }
+
+    public Optional<ConcurrencyLimit> findById(DSLContext context, String tenantId, String namespace, String flowId) {
+        return context
+            .select(AbstractJdbcRepository.field("value"), RUNNING)
+            .from(this.jdbcRepository.getTable())
+            .where(AbstractJdbcRepository.field("key").eq(IdUtils.fromParts(tenantId, namespace, flowId)))
+            .fetchOptional()
+            .map(record -> this.jdbcRepository.map(record).withRunning(record.get(RUNNING)));
+    }
+
+    /**
+     * Take a slot of the flow if its running count is under the limit.
+     *
+     * @return false if the flow is already at its limit
+     */
+    public boolean reserve(String tenantId, String namespace, String flowId, int limit) {
+        return this.jdbcRepository
+            .getDslContextWrapper()
+            .transactionResult(configuration -> this.reserve(DSL.using(configuration), tenantId, namespace, flowId, limit));
+    }
+
+    /**
+     * Take a slot of the flow if its running count is under the limit, inside the caller transaction
+     * so the slot is given back if it's rolled back.
+     *
+     * @return false if the flow is already at its limit
+     */
+    public boolean reserve(DSLContext context, String tenantId, String namespace, String flowId, int limit) {
+        this.create(context, tenantId, namespace, flowId);
+
+        return context
+            .update(this.jdbcRepository.getTable())
+            .set(RUNNING, RUNNING.plus(1))
+            .where(AbstractJdbcRepository.field("key").eq(IdUtils.fromParts(tenantId, namespace, flowId)))
+            .and(RUNNING.lessThan(limit))
+            .execute() == 1;
+    }
+
+    /**
+     * Add the delta to the running count of the flow, the count never goes below zero.
+     */
+    public void increment(String tenantId, String namespace, String flowId, int delta) {
+        this.jdbcRepository
+            .getDslContextWrapper()
+            .transaction(configuration -> {
+                DSLContext context = DSL.using(configuration);
+                this.create(context, tenantId, namespace, flowId);
+
+                context
+                    .update(this.jdbcRepository.getTable())
+                    .set(RUNNING, DSL.greatest(RUNNING.plus(delta), DSL.inline(0)))
+                    .where(AbstractJdbcRepository.field("key").eq(IdUtils.fromParts(tenantId, namespace, flowId)))
+                    .execute();
+            });
+    }
+
+    /**
+     * Set the running count of the flow only if it's still the expected one, so a count changed meanwhile is not overwritten.
+     *
+     * @return false if the running count changed since it was read
+     */
+    public boolean reconcile(String tenantId, String namespace, String flowId, int expected, int running) {
+        return this.jdbcRepository
+            .getDslContextWrapper()
+            .transactionResult(configuration -> {
+                DSLContext context = DSL.using(configuration);
+                this.create(context, tenantId, namespace, flowId);
+
+                return context
+                    .update(this.jdbcRepository.getTable())
+                    .set(RUNNING, running)
+                    .where(AbstractJdbcRepository.field("key").eq(IdUtils.fromParts(tenantId, namespace, flowId)))
+                    .and(RUNNING.eq(expected))
+                    .execute() == 1;
+            });
+    }
+
+    private void create(DSLContext context, String tenantId, String namespace, String flowId) {
+        ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(tenantId, namespace, flowId, 0);
+
+        context
+            .insertInto(this.jdbcRepository.getTable())
+            .set(AbstractJdbcRepository.field("key"), concurrencyLimit.uid())
+            .set(this.jdbcRepository.persistFields(concurrencyLimit))
+            .onDuplicateKeyIgnore()
+            .execute();
+    }
+}
@@ -3,12 +3,12 @@ package io.kestra.jdbc.runner;
 import io.kestra.core.runners.ExecutionDelay;
 import io.kestra.jdbc.repository.AbstractJdbcRepository;
 import org.jooq.Field;
-import org.jooq.Record1;
-import org.jooq.SelectConditionStep;
 import org.jooq.impl.DSL;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 public abstract class AbstractJdbcExecutionDelayStorage extends AbstractJdbcRepository {
@@ -18,25 +18,54 @@ public abstract class AbstractJdbcExecutionDelayStorage extends AbstractJdbcRepo
         this.jdbcRepository = jdbcRepository;
     }
 
-    public void get(Consumer<ExecutionDelay> consumer) {
+    /**
+     * The delays due before the given date, to schedule them on the executor timer wheel.
+     */
+    public List<ExecutionDelay> findAllDueBefore(ZonedDateTime date) {
+        return this.jdbcRepository
+            .getDslContextWrapper()
+            .transactionResult(configuration -> {
+                var select = DSL
+                    .using(configuration)
+                    .select(AbstractJdbcRepository.field("value"))
+                    .from(this.jdbcRepository.getTable())
+                    .where(AbstractJdbcRepository.field("date").lessThan(date.toOffsetDateTime()));
+
+                return this.jdbcRepository.fetch(select);
+            });
+    }
+
+    /**
+     * Remove the delay if it's still due and pass it to the consumer.
+     * <p>
+     * The row is locked until the consumer returns, so a delay scheduled by several executors is only processed once,
+     * and a delay saved again with a later date is left for its new date.
+     *
+     * @return false if the delay was already processed or is not due anymore
+     */
+    public boolean process(ExecutionDelay executionDelay, Consumer<ExecutionDelay> consumer) {
         ZonedDateTime now = ZonedDateTime.now();
 
-        this.jdbcRepository
+        return this.jdbcRepository
             .getDslContextWrapper()
-            .transaction(configuration -> {
-                SelectConditionStep<Record1<Object>> select = DSL
+            .transactionResult(configuration -> {
+                var select = DSL
                     .using(configuration)
                     .select(AbstractJdbcRepository.field("value"))
                     .from(this.jdbcRepository.getTable())
-                    .where(
-                        AbstractJdbcRepository.field("date").lessOrEqual(now.toOffsetDateTime())
-                    );
-
-                this.jdbcRepository.fetch(select)
-                    .forEach(executionDelay -> {
-                        consumer.accept(executionDelay);
-                        jdbcRepository.delete(executionDelay);
-                    });
+                    .where(AbstractJdbcRepository.field("key").eq(this.jdbcRepository.key(executionDelay)))
+                    .and(AbstractJdbcRepository.field("date").lessOrEqual(now.toOffsetDateTime()))
+                    .forUpdate();
+
+                Optional<ExecutionDelay> maybeDelay = this.jdbcRepository.fetchOne(select);
+                if (maybeDelay.isPresent()) {
+                    consumer.accept(maybeDelay.get());
+                    this.jdbcRepository.delete(DSL.using(configuration), maybeDelay.get());
+
+                    return true;
+                }
+
+                return false;
             });
     }
 
@@ -23,10 +23,15 @@ public abstract class AbstractJdbcExecutionQueuedStorage extends AbstractJdbcRep
         this.jdbcRepository.persist(executionQueued, fields);
     }
 
-    public void pop(String tenantId, String namespace, String flowId, Consumer<Execution> consumer) {
-        this.jdbcRepository
+    /**
+     * Remove the oldest queued execution of the flow and pass it to the consumer.
+     *
+     * @return false if there was no queued execution
+     */
+    public boolean pop(String tenantId, String namespace, String flowId, Consumer<Execution> consumer) {
+        return this.jdbcRepository
             .getDslContextWrapper()
-            .transaction(configuration -> {
+            .transactionResult(configuration -> {
                 var select = DSL
                     .using(configuration)
                     .select(AbstractJdbcRepository.field("value"))
@@ -42,7 +47,11 @@ public abstract class AbstractJdbcExecutionQueuedStorage extends AbstractJdbcRep
                 if (maybeExecution.isPresent()) {
                     consumer.accept(maybeExecution.get().getExecution());
                     this.jdbcRepository.delete(maybeExecution.get());
+
+                    return true;
                 }
+
+                return false;
             });
     }
 
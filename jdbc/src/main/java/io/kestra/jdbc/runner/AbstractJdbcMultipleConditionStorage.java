@@ -8,9 +8,11 @@ import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record1;
 import org.jooq.SelectConditionStep;
+import org.jooq.SelectJoinStep;
 import org.jooq.impl.DSL;
 
 import java.time.ZonedDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -63,17 +65,47 @@ public abstract class AbstractJdbcMultipleConditionStorage extends AbstractJdbcR
             });
     }
 
+    /**
+     * All the windows, to load them in the executor cache.
+     */
+    public List<MultipleConditionWindow> findAll() {
+        return this.jdbcRepository
+            .getDslContextWrapper()
+            .transactionResult(configuration -> {
+                SelectJoinStep<Record1<Object>> select = DSL
+                    .using(configuration)
+                    .select(field("value"))
+                    .from(this.jdbcRepository.getTable());
+
+                return this.jdbcRepository.fetch(select);
+            });
+    }
+
     @Override
-    public synchronized void save(List<MultipleConditionWindow> multipleConditionWindows) {
+    public void save(List<MultipleConditionWindow> multipleConditionWindows) {
         this.jdbcRepository
             .getDslContextWrapper()
             .transaction(configuration -> {
                 DSLContext context = DSL.using(configuration);
 
+                // rows are always locked in the same order, so concurrent saves can't deadlock
                 multipleConditionWindows
+                    .stream()
+                    .sorted(Comparator.comparing(MultipleConditionWindow::uid))
                     .forEach(window -> {
-                        Map<Field<Object>, Object> fields = this.jdbcRepository.persistFields(window);
-                        this.jdbcRepository.persist(window, context, fields);
+                        // the results saved meanwhile by another lane or executor for the same window are merged so none is lost
+                        MultipleConditionWindow merged = this.jdbcRepository.fetchOne(context
+                                .select(field("value"))
+                                .from(this.jdbcRepository.getTable())
+                                .where(field("key").eq(this.jdbcRepository.key(window)))
+                                .forUpdate()
+                            )
+                            .filter(current -> current.getResults() != null && current.getStart().isEqual(window.getStart()))
+                            .map(current -> window.with(current.getResults()))
+                            .orElse(window);
+
+                        Map<Field<Object>, Object> fields = this.jdbcRepository.persistFields(merged);
+                        this.jdbcRepository.persist(merged, context, fields);
                     });
             });
     }
@@ -0,0 +1,209 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.jdbc.JdbcTableConfig;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Manage a queues table partitioned by creation date.
+ * <p>
+ * Partitions are identified by the start of their period (<code>p20240101</code> or <code>p2024010112</code>),
+ * the rows that exist when the table is converted are kept in a single legacy partition
+ * (<code>plegacy20240101123456</code>, identified by its upper bound).
+ * Expired partitions are dropped as a whole instead of deleting their rows.
+ * <p>
+ * When the database routes the rows without a partition to a default one, the periods found in it are given their partition,
+ * which moves their rows out of the default partition so they expire with their period.
+ */
+@Slf4j
+public abstract class AbstractJdbcQueuePartitioning {
+    protected static final String PREFIX = "p";
+    protected static final String LEGACY_PREFIX = "plegacy";
+
+    private static final DateTimeFormatter DAILY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter HOURLY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final DateTimeFormatter LEGACY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    protected final JooqDSLContextWrapper dslContextWrapper;
+
+    protected final String tableName;
+
+    public AbstractJdbcQueuePartitioning(JdbcTableConfig jdbcTableConfig, JooqDSLContextWrapper dslContextWrapper) {
+        this.dslContextWrapper = dslContextWrapper;
+        this.tableName = jdbcTableConfig.table();
+    }
+
+    /**
+     * Convert the queues table if it's not partitioned yet, create the upcoming partitions and drop the expired ones.
+     */
+    public void maintain(Granularity granularity, int partitionsAhead, Duration retention) {
+        Instant now = Instant.now();
+
+        dslContextWrapper.transaction(configuration -> {
+            DSLContext context = DSL.using(configuration);
+
+            if (!this.isPartitioned(context)) {
+                log.info("Converting table {} to a table partitioned by {}", this.tableName, granularity);
+                this.convert(context, granularity);
+            }
+        });
+
+        List<String> partitions = dslContextWrapper.transactionResult(configuration -> this.partitions(DSL.using(configuration)));
+
+        // the legacy partition ends at the database clock, the periods it already covers can't be created
+        Instant legacyEnd = partitions
+            .stream()
+            .filter(partition -> partition.startsWith(LEGACY_PREFIX))
+            .map(AbstractJdbcQueuePartitioning::upperBound)
+            .max(Comparator.naturalOrder())
+            .orElse(Instant.MIN);
+
+        Set<Instant> periods = new TreeSet<>();
+        Instant start = granularity.truncate(now);
+        for (int i = 0; i <= partitionsAhead; i++) {
+            periods.add(start.plus(granularity.getDuration().multipliedBy(i)));
+        }
+
+        // rows inserted while the maintenance was late, they would be kept forever and prevent the creation of their partition
+        List<Instant> defaultPeriods = dslContextWrapper.transactionResult(configuration -> this.defaultPartitionPeriods(DSL.using(configuration), granularity));
+        if (!defaultPeriods.isEmpty()) {
+            log.warn("Found rows of {} periods in the default partition of table {}, moving them to their partitions", defaultPeriods.size(), this.tableName);
+            periods.addAll(defaultPeriods);
+        }
+
+        // each partition is handled in its own transaction, so a failure doesn't abort the others
+        for (Instant from : periods) {
+            String partition = granularity.partition(from);
+
+            if (!partitions.contains(partition) && from.plus(granularity.getDuration()).isAfter(legacyEnd)) {
+                try {
+                    dslContextWrapper.transaction(configuration -> this.createPartition(DSL.using(configuration), partition, from, from.plus(granularity.getDuration())));
+                    log.info("Created partition {} of table {}", partition, this.tableName);
+                } catch (DataAccessException e) {
+                    log.warn("Unable to create partition {} of table {}", partition, this.tableName, e);
+                }
+            }
+        }
+
+        Instant limit = now.minus(retention);
+        dslContextWrapper.transactionResult(configuration -> this.partitions(DSL.using(configuration)))
+            .stream()
+            .filter(partition -> {
+                Instant upperBound = upperBound(partition);
+                return upperBound != null && !upperBound.isAfter(limit);
+            })
+            .forEach(partition -> {
+                dslContextWrapper.transaction(configuration -> this.dropPartition(DSL.using(configuration), partition));
+                log.info("Dropped partition {} of table {}", partition, this.tableName);
+            });
+    }
+
+    /**
+     * The exclusive upper bound of a partition, from its identifier, or null for partitions that never expire.
+     */
+    protected static Instant upperBound(String partition) {
+        if (partition.startsWith(LEGACY_PREFIX)) {
+            return LocalDateTime.parse(partition.substring(LEGACY_PREFIX.length()), LEGACY_FORMATTER).toInstant(ZoneOffset.UTC);
+        }
+
+        if (!partition.startsWith(PREFIX)) {
+            return null;
+        }
+
+        String period = partition.substring(PREFIX.length());
+        if (period.length() == 8 && period.chars().allMatch(Character::isDigit)) {
+            return Granularity.DAILY.parse(period).plus(Granularity.DAILY.getDuration());
+        }
+
+        if (period.length() == 10 && period.chars().allMatch(Character::isDigit)) {
+            return Granularity.HOURLY.parse(period).plus(Granularity.HOURLY.getDuration());
+        }
+
+        return null;
+    }
+
+    protected static String legacyPartition(Instant upperBound) {
+        return LEGACY_PREFIX + LEGACY_FORMATTER.format(upperBound.atOffset(ZoneOffset.UTC));
+    }
+
+    protected abstract boolean isPartitioned(DSLContext context);
+
+    /**
+     * Convert the table: existing rows go in a legacy partition and the current period partition starts at its upper bound.
+     * <p>
+     * The bound is taken from the database once the table is locked, above the creation date of every existing row,
+     * as the clock of the application can differ from the one setting the <code>created</code> column.
+     * <p>
+     * The queues are unavailable during the conversion: the table is locked while the existing rows are checked against the bound
+     * and the primary key on <code>(offset, created)</code> is built for them, which lasts as long as a scan and an index build of the table.
+     * It only happens once, on the first maintenance with partitioning enabled.
+     */
+    protected abstract void convert(DSLContext context, Granularity granularity);
+
+    /**
+     * The identifiers of the existing partitions.
+     */
+    protected abstract List<String> partitions(DSLContext context);
+
+    /**
+     * The start of the periods of the rows in the default partition, none for the databases without one.
+     */
+    protected List<Instant> defaultPartitionPeriods(DSLContext context, Granularity granularity) {
+        return List.of();
+    }
+
+    /**
+     * Create the partition of a period, moving its rows out of the default partition if any.
+     */
+    protected abstract void createPartition(DSLContext context, String partition, Instant from, Instant to);
+
+    protected abstract void dropPartition(DSLContext context, String partition);
+
+    public enum Granularity {
+        DAILY(ChronoUnit.DAYS, DAILY_FORMATTER),
+        HOURLY(ChronoUnit.HOURS, HOURLY_FORMATTER);
+
+        private final ChronoUnit unit;
+        private final DateTimeFormatter formatter;
+
+        Granularity(ChronoUnit unit, DateTimeFormatter formatter) {
+            this.unit = unit;
+            this.formatter = formatter;
+        }
+
+        public Duration getDuration() {
+            return this.unit.getDuration();
+        }
+
+        public Instant truncate(Instant instant) {
+            return instant.truncatedTo(this.unit);
+        }
+
+        public String partition(Instant from) {
+            return PREFIX + this.formatter.format(from.atOffset(ZoneOffset.UTC));
+        }
+
+        private Instant parse(String period) {
+            if (this == DAILY) {
+                return LocalDate.parse(period, this.formatter).atStartOfDay().toInstant(ZoneOffset.UTC);
+            }
+
+            return LocalDateTime.parse(period, this.formatter).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
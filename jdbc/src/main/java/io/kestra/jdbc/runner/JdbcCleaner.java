@@ -5,6 +5,7 @@ import io.kestra.jdbc.JooqDSLContextWrapper;
 import io.kestra.jdbc.repository.AbstractJdbcRepository;
 import io.micronaut.context.annotation.ConfigurationProperties;
 import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.scheduling.annotation.Scheduled;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -25,20 +26,36 @@ import java.time.ZonedDateTime;
 public class JdbcCleaner {
     private final JooqDSLContextWrapper dslContextWrapper;
     private final Configuration configuration;
+    private final AbstractJdbcQueuePartitioning queuePartitioning;
     protected final Table<Record> queueTable;
 
     @Inject
     public JdbcCleaner(@Named("queues") JdbcTableConfig jdbcTableConfig,
                        JooqDSLContextWrapper dslContextWrapper,
-                       Configuration configuration
+                       Configuration configuration,
+                       @Nullable AbstractJdbcQueuePartitioning queuePartitioning
     ) {
         this.dslContextWrapper = dslContextWrapper;
         this.configuration = configuration;
+        this.queuePartitioning = queuePartitioning;
 
         this.queueTable = DSL.table(jdbcTableConfig.table());
     }
 
     public void deleteQueue() {
+        if (this.configuration.getPartitioning() != null) {
+            if (this.queuePartitioning != null) {
+                this.queuePartitioning.maintain(
+                    this.configuration.getPartitioning(),
+                    this.configuration.getPartitionsAhead(),
+                    this.configuration.getRetention()
+                );
+                return;
+            }
+
+            log.warn("Partitioning of {} is not supported by this database, cleaning it with deletes", this.queueTable.getName());
+        }
+
         dslContextWrapper.transaction(configuration -> {
             int deleted = DSL
                 .using(configuration)
@@ -61,5 +78,10 @@ public class JdbcCleaner {
     @Getter
     public static class Configuration {
         Duration retention;
+
+        // partition the queues table by creation date and drop the expired partitions instead of deleting rows
+        AbstractJdbcQueuePartitioning.Granularity partitioning;
+
+        Integer partitionsAhead = 3;
     }
 }
@@ -0,0 +1,170 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.runners.ExecutionDelay;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A hierarchical timer wheel of the execution delays known by the executor, so due delays are found without scanning the table.
+ * <p>
+ * The first level has a slot per tick, each next level has a slot per full turn of the previous one.
+ * A delay is placed on the lowest level that covers its date and moved down a level each time the slot it's in is reached,
+ * until it's on the first level and expires with its tick. Adding and expiring a delay cost a constant time whatever the number of delays.
+ * <p>
+ * A delay is replaced by a delay with the same uid, the replaced one stays in its slot but is ignored when reached.
+ */
+public class JdbcExecutionDelayWheel {
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final int size;
+    private final long[] spans = new long[LEVELS + 1];
+    private final List<List<Entry>[]> levels = new ArrayList<>();
+    private final List<Entry> expired = new ArrayList<>();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public JdbcExecutionDelayWheel(Configuration configuration, Instant now) {
+        this.tickMillis = Math.max(1, configuration.getTick().toMillis());
+        this.size = configuration.getSize();
+
+        for (int i = 0; i <= LEVELS; i++) {
+            this.spans[i] = i == 0 ? 1 : this.spans[i - 1] * this.size;
+        }
+        for (int i = 0; i < LEVELS; i++) {
+            this.levels.add(new List[this.size]);
+        }
+
+        this.currentTick = this.tick(now);
+    }
+
+    public synchronized void add(ExecutionDelay executionDelay) {
+        Entry previous = this.entries.get(executionDelay.uid());
+        if (previous != null && Objects.equals(previous.executionDelay.getDate(), executionDelay.getDate())) {
+            return;
+        }
+
+        // rounded up so a delay never expires before its date
+        Entry entry = new Entry(executionDelay, Math.ceilDiv(executionDelay.getDate().toEpochMilli(), this.tickMillis));
+        this.entries.put(executionDelay.uid(), entry);
+        this.place(entry);
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Move the wheel up to now and remove the delays that are due, in the order of their tick.
+     */
+    public synchronized List<ExecutionDelay> advance(Instant now) {
+        long target = this.tick(now);
+        List<ExecutionDelay> due = new ArrayList<>();
+
+        while (this.currentTick < target) {
+            this.currentTick++;
+
+            // cascade the higher levels whose slot starts with this tick, from the highest one so delays can go down several levels
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if (this.currentTick % this.spans[level] == 0) {
+                    this.drain(level, this.currentTick).forEach(this::place);
+                }
+            }
+
+            this.expire(this.drain(0, this.currentTick), due);
+        }
+
+        // delays added with a past date, or cascaded on their own tick
+        this.expire(this.drain(this.expired), due);
+
+        return due;
+    }
+
+    private void expire(List<Entry> slot, List<ExecutionDelay> due) {
+        for (Entry entry : slot) {
+            if (this.entries.get(entry.executionDelay.uid()) != entry) {
+                continue;
+            }
+
+            if (entry.tick > this.currentTick) {
+                this.place(entry);
+                continue;
+            }
+
+            this.entries.remove(entry.executionDelay.uid());
+            due.add(entry.executionDelay);
+        }
+    }
+
+    private void place(Entry entry) {
+        long delta = entry.tick - this.currentTick;
+        if (delta <= 0) {
+            this.expired.add(entry);
+            return;
+        }
+
+        // beyond the last level, the delay is placed on its slot of the last level and placed again each time it's reached
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= this.spans[level + 1]) {
+            level++;
+        }
+
+        int index = (int) ((entry.tick / this.spans[level]) % this.size);
+        List<Entry>[] slots = this.levels.get(level);
+        if (slots[index] == null) {
+            slots[index] = new ArrayList<>();
+        }
+        slots[index].add(entry);
+    }
+
+    private List<Entry> drain(int level, long tick) {
+        int index = (int) ((tick / this.spans[level]) % this.size);
+        List<Entry>[] slots = this.levels.get(level);
+
+        // detached before its entries are placed again, as they can go back to the same slot for its next turn
+        List<Entry> slot = slots[index];
+        slots[index] = null;
+
+        return slot == null ? List.of() : slot;
+    }
+
+    private List<Entry> drain(List<Entry> slot) {
+        List<Entry> drained = new ArrayList<>(slot);
+        slot.clear();
+
+        return drained;
+    }
+
+    private long tick(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), this.tickMillis);
+    }
+
+    private record Entry(ExecutionDelay executionDelay, long tick) {
+    }
+
+    @ConfigurationProperties("kestra.jdbc.executor.delay-wheel")
+    @Getter
+    public static class Configuration {
+        // resolution of the delays, they expire at most a tick after their date
+        Duration tick = Duration.ofMillis(10);
+
+        // number of slots of each level, the first level covers size ticks
+        Integer size = 512;
+
+        // interval of the scan of the table for the delays saved by other executors
+        Duration syncInterval = Duration.ofMinutes(1);
+
+        // only the delays due within this duration are loaded by a scan, at least twice the sync interval
+        Duration horizon = Duration.ofMinutes(5);
+    }
+}
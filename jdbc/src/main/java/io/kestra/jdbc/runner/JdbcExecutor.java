@@ -1,6 +1,7 @@
 package io.kestra.jdbc.runner;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.Striped;
 import io.kestra.core.contexts.KestraContext;
 import io.kestra.core.exceptions.DeserializationException;
 import io.kestra.core.exceptions.InternalException;
@@ -25,16 +26,20 @@ import io.kestra.core.runners.*;
 import io.kestra.core.server.Service;
 import io.kestra.core.server.ServiceStateChangeEvent;
 import io.kestra.core.services.*;
+import io.kestra.core.topologies.FlowTopologyIndex;
 import io.kestra.core.topologies.FlowTopologyService;
 import io.kestra.core.utils.Await;
 import io.kestra.core.utils.Either;
 import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.ThreadMainFactoryBuilder;
 import io.kestra.jdbc.JdbcMapper;
 import io.kestra.jdbc.repository.AbstractJdbcExecutionRepository;
 import io.kestra.jdbc.repository.AbstractJdbcFlowTopologyRepository;
 import io.kestra.jdbc.repository.AbstractJdbcWorkerJobRunningRepository;
+import io.kestra.plugin.core.condition.MultipleCondition;
 import io.kestra.plugin.core.flow.ForEachItem;
 import io.kestra.plugin.core.flow.Template;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.transaction.exceptions.CannotCreateTransactionException;
 import jakarta.annotation.Nullable;
@@ -51,15 +56,21 @@ import org.slf4j.event.Level;
 import java.io.IOException;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static io.kestra.core.utils.Rethrow.throwBiConsumer;
+import static io.kestra.core.utils.Rethrow.throwBiFunction;
 import static io.kestra.core.utils.Rethrow.throwConsumer;
-import static io.kestra.core.utils.Rethrow.throwFunction;
 
 @SuppressWarnings("deprecation")
 @Singleton
@@ -68,8 +79,12 @@ import static io.kestra.core.utils.Rethrow.throwFunction;
 public class JdbcExecutor implements ExecutorInterface, Service {
     private static final ObjectMapper MAPPER = JdbcMapper.of();
 
+    // only ticks the delay wheel, so the other periodic tasks can't delay the expiration of the delays
     private final ScheduledExecutorService scheduledDelay = Executors.newSingleThreadScheduledExecutor();
 
+    // the periodic scans and flushes: delay sync, concurrency limits reconciliation, topologies and multiple condition windows
+    private final ScheduledExecutorService scheduledMaintenance = Executors.newSingleThreadScheduledExecutor();
+
     @Inject
     private AbstractJdbcExecutionRepository executionRepository;
 
@@ -117,6 +132,11 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     private ConditionService conditionService;
 
     @Inject
+    private AbstractJdbcMultipleConditionStorage jdbcMultipleConditionStorage;
+
+    @Inject
+    private JdbcMultipleConditionCache.Configuration multipleConditionCacheConfiguration;
+
     private MultipleConditionStorageInterface multipleConditionStorage;
 
     @Inject
@@ -141,14 +161,30 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     @Inject
     private AbstractJdbcExecutionQueuedStorage executionQueuedStorage;
 
+    @Inject
+    private AbstractJdbcConcurrencyLimitStorage concurrencyLimitStorage;
+
+    @Value("${kestra.jdbc.executor.concurrency-limit-reconcile-interval:PT1M}")
+    private Duration concurrencyLimitReconcileInterval;
+
     @Inject
     private AbstractJdbcExecutorStateStorage executorStateStorage;
 
     @Inject
     private FlowTopologyService flowTopologyService;
 
+    @Value("${kestra.jdbc.executor.topology-batch-interval:PT1S}")
+    private Duration topologyBatchInterval;
+
+    private FlowTopologyIndex flowTopologyIndex;
+
+    // flows received and waiting for their topology to be computed, by uid so consecutive updates of a flow are computed once
+    private final Map<String, Flow> pendingTopologies = new LinkedHashMap<>();
+
     protected List<Flow> allFlows;
 
+    private volatile FlowTriggerIndex flowTriggerIndex;
+
     @Inject
     private WorkerGroupService workerGroupService;
 
@@ -161,6 +197,32 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     @Inject
     private LogService logService;
 
+    @Inject
+    private ThreadMainFactoryBuilder threadFactoryBuilder;
+
+    @Inject
+    private JdbcExecutorLanes.Configuration lanesConfiguration;
+
+    private JdbcExecutorLanes lanes;
+
+    // the multiple condition windows of a flow are read, merged and checked by one lane at a time, as with a single polling thread
+    private final Striped<Lock> multipleConditionLocks = Striped.lazyWeakLock(1024);
+
+    @Inject
+    private JdbcExecutorFlowCache.Configuration flowCacheConfiguration;
+
+    private JdbcExecutorFlowCache flowCache;
+
+    @Inject
+    private JdbcExecutorStages.Configuration stagesConfiguration;
+
+    private JdbcExecutorStages stages;
+
+    @Inject
+    private JdbcExecutionDelayWheel.Configuration delayWheelConfiguration;
+
+    private JdbcExecutionDelayWheel delayWheel;
+
     private final FlowRepositoryInterface flowRepository;
 
     private final JdbcServiceLivenessCoordinator serviceLivenessCoordinator;
@@ -206,21 +268,113 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         if (serviceLivenessCoordinator != null) {
             serviceLivenessCoordinator.setExecutor(this);
         }
+        this.flowCache = new JdbcExecutorFlowCache(flowCacheConfiguration, metricRegistry);
+        this.stages = new JdbcExecutorStages(stagesConfiguration, metricRegistry);
+
+        if (multipleConditionCacheConfiguration.getEnabled()) {
+            JdbcMultipleConditionCache multipleConditionCache = new JdbcMultipleConditionCache(jdbcMultipleConditionStorage);
+            multipleConditionCache.load();
+
+            scheduledMaintenance.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        multipleConditionCache.flush();
+                    } catch (Exception e) {
+                        log.warn("Unable to persist the multiple condition windows", e);
+                    }
+                },
+                multipleConditionCacheConfiguration.getFlushInterval().toMillis(),
+                multipleConditionCacheConfiguration.getFlushInterval().toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+
+            this.multipleConditionStorage = multipleConditionCache;
+        } else {
+            this.multipleConditionStorage = jdbcMultipleConditionStorage;
+        }
+
+        // the topology of a flow is only computed against the flows that could be related to it,
+        // the index is maintained from the flows broadcast to every executor whichever one persists the topology
+        this.flowTopologyIndex = flowTopologyService.index(List.of());
+
         flowListeners.run();
-        flowListeners.listen(flows -> this.allFlows = flows);
+        flowListeners.listen((flow, previous) -> {
+            this.flowCache.invalidate(flow);
+            this.indexTopology(List.of(flow));
+        });
+        flowListeners.listen(flows -> {
+            // indexed first as the executor starts once the flows are loaded
+            this.flowTriggerIndex = flowTriggerService.index(flows);
+            if (this.allFlows == null) {
+                this.indexTopology(flows);
+            }
+            this.allFlows = flows;
+        });
 
         Await.until(() -> this.allFlows != null, Duration.ofMillis(100), Duration.ofMinutes(5));
 
-        this.receiveCancellations.addFirst(this.executionQueue.receive(Executor.class, this::executionQueue));
-        this.receiveCancellations.addFirst(this.workerTaskResultQueue.receive(Executor.class, this::workerTaskResultQueue));
-        this.receiveCancellations.addFirst(this.killQueue.receive(Executor.class, this::killQueue));
-        this.receiveCancellations.addFirst(this.subflowExecutionResultQueue.receive(Executor.class, this::subflowExecutionResultQueue));
+        // messages are processed on lanes hashed by execution id, so one slow execution doesn't block the others
+        this.lanes = new JdbcExecutorLanes(lanesConfiguration, threadFactoryBuilder, metricRegistry);
+
+        // each poll is processed before the next one, as its messages are already acknowledged
+        this.receiveCancellations.addFirst(((JdbcQueue<Execution>) this.executionQueue).receiveBatch(
+            null,
+            Executor.class,
+            eithers -> this.lanes.dispatchAll(eithers.stream()
+                .map(either -> new JdbcExecutorLanes.Message(either.isLeft() ? either.getLeft().getId() : null, () -> this.executionQueue(either)))
+                .toList()
+            )
+        ));
+        // the results of a fetch are applied together for each execution, a fan-out only locks, persists and emits its execution once
+        this.receiveCancellations.addFirst(((JdbcQueue<WorkerTaskResult>) this.workerTaskResultQueue).receiveBatch(
+            null,
+            Executor.class,
+            this::workerTaskResultQueue
+        ));
+        this.receiveCancellations.addFirst(((JdbcQueue<ExecutionKilled>) this.killQueue).receiveBatch(
+            null,
+            Executor.class,
+            eithers -> this.lanes.dispatchAll(eithers.stream()
+                .map(either -> new JdbcExecutorLanes.Message(
+                    either.isLeft() && either.getLeft() instanceof ExecutionKilledExecution killedExecution ? killedExecution.getExecutionId() : null,
+                    () -> this.killQueue(either)
+                ))
+                .toList()
+            )
+        ));
+        this.receiveCancellations.addFirst(((JdbcQueue<SubflowExecutionResult>) this.subflowExecutionResultQueue).receiveBatch(
+            null,
+            Executor.class,
+            eithers -> this.lanes.dispatchAll(eithers.stream()
+                .map(either -> new JdbcExecutorLanes.Message(
+                    either.isLeft() ? either.getLeft().getParentTaskRun().getExecutionId() : null,
+                    () -> this.subflowExecutionResultQueue(either)
+                ))
+                .toList()
+            )
+        ));
 
+        // delays are expired from the wheel, the table is only scanned at startup and for the delays saved by other executors
+        this.delayWheel = new JdbcExecutionDelayWheel(delayWheelConfiguration, Instant.now());
         ScheduledFuture<?> scheduledDelayFuture = scheduledDelay.scheduleAtFixedRate(
             this::executionDelaySend,
             0,
-            1,
-            TimeUnit.SECONDS
+            delayWheelConfiguration.getTick().toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+
+        scheduledMaintenance.scheduleWithFixedDelay(
+            this::executionDelaySync,
+            0,
+            delayWheelConfiguration.getSyncInterval().toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+
+        scheduledMaintenance.scheduleWithFixedDelay(
+            this::reconcileConcurrencyLimits,
+            0,
+            concurrencyLimitReconcileInterval.toMillis(),
+            TimeUnit.MILLISECONDS
         );
 
         // look at exceptions on the scheduledDelay thread
@@ -240,6 +394,16 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             }
         );
 
+        if (topologyBatchInterval.isPositive()) {
+            scheduledMaintenance.scheduleWithFixedDelay(
+                this::flushTopologies,
+                topologyBatchInterval.toMillis(),
+                topologyBatchInterval.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        }
+
+        // a competing consumer, so the topology of a flow is persisted by a single executor
         this.receiveCancellations.addFirst(flowQueue.receive(
             FlowTopology.class,
             either -> {
@@ -258,24 +422,63 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                     flow = either.getLeft();
                 }
 
-                flowTopologyRepository.save(
-                    flow,
-                    (flow.isDeleted() ?
-                        Stream.<FlowTopology>empty() :
-                        flowTopologyService
-                            .topology(
-                                flow,
-                                this.allFlows.stream()
-                            )
-                    )
-                        .distinct()
-                        .toList()
-                );
+                if (topologyBatchInterval.isPositive()) {
+                    synchronized (this.pendingTopologies) {
+                        this.pendingTopologies.remove(flow.uidWithoutRevision());
+                        this.pendingTopologies.put(flow.uidWithoutRevision(), flow);
+                    }
+                } else {
+                    this.updateTopologies(List.of(flow));
+                }
             }
         ));
         setState(ServiceState.RUNNING);
     }
 
+    private void flushTopologies() {
+        List<Flow> flows;
+        synchronized (this.pendingTopologies) {
+            flows = new ArrayList<>(this.pendingTopologies.values());
+            this.pendingTopologies.clear();
+        }
+
+        if (flows.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.updateTopologies(flows);
+        } catch (Exception e) {
+            log.warn("Unable to update the topology of {} flows", flows.size(), e);
+        }
+    }
+
+    private void indexTopology(List<Flow> flows) {
+        synchronized (this.flowTopologyIndex) {
+            flows.forEach(this.flowTopologyIndex::update);
+        }
+    }
+
+    /**
+     * Index all the flows first, so a bulk import computes each relation between the imported flows once they are all known,
+     * even if the flow listeners didn't receive them yet.
+     */
+    private void updateTopologies(List<Flow> flows) {
+        synchronized (this.flowTopologyIndex) {
+            flows.forEach(this.flowTopologyIndex::update);
+
+            flows.forEach(flow -> flowTopologyRepository.save(
+                flow,
+                (flow.isDeleted() ?
+                    Stream.<FlowTopology>empty() :
+                    flowTopologyService.topology(flow, this.flowTopologyIndex)
+                )
+                    .distinct()
+                    .toList()
+            ));
+        }
+    }
+
     void reEmitWorkerJobsForWorkers(final Configuration configuration,
                                     final List<String> ids) {
         workerJobRunningRepository.getWorkerJobWithWorkerDead(configuration.dsl(), ids)
@@ -351,13 +554,24 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             return;
         }
 
-        Executor result = executionRepository.lock(message.getId(), throwFunction(pair -> {
+        JdbcExecutorStages.Step step = this.stages.start(message);
+        try {
+            this.executionQueue(message, step);
+        } finally {
+            // recorded even if the processing failed, the slow steps are often the ones in error
+            step.end();
+        }
+    }
+
+    private void executionQueue(Execution message, JdbcExecutorStages.Step step) {
+        Executor result = executionRepository.lock(message.getId(), step.locked(throwBiFunction((context, pair) -> {
             try {
                 Execution execution = pair.getLeft();
                 ExecutorState executorState = pair.getRight();
 
-                final Flow flow = transform(this.flowRepository.findByExecution(execution), execution);
+                final Flow flow = this.findResolvedFlow(execution);
                 Executor executor = new Executor(execution, null).withFlow(flow);
+                step.enter(JdbcExecutorStages.Stage.PROCESS);
 
                 // schedule it for later if needed
                 if (execution.getState().getCurrent() == State.Type.CREATED && execution.getScheduleDate() != null && execution.getScheduleDate().isAfter(Instant.now())) {
@@ -367,7 +581,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                         .state(State.Type.RUNNING)
                         .delayType(ExecutionDelay.DelayType.RESUME_FLOW)
                         .build();
-                    executionDelayStorage.save(executionDelay);
+                    this.saveExecutionDelay(executionDelay);
                     return Pair.of(
                         executor,
                         executorState
@@ -376,15 +590,14 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
                 // queue execution if needed (limit concurrency)
                 if (execution.getState().getCurrent() == State.Type.CREATED && flow.getConcurrency() != null) {
-                    ExecutionCount count = executionRepository.executionCounts(
-                        flow.getTenantId(),
-                        List.of(new io.kestra.core.models.executions.statistics.Flow(flow.getNamespace(), flow.getId())),
-                        List.of(State.Type.RUNNING, State.Type.PAUSED),
-                        null,
-                        null
-                    ).getFirst();
+                    // the slot is taken atomically in the lock transaction, so two executions can't both be admitted for the last one
+                    // and it's given back on a rollback, it's released after the processing if the execution doesn't move into the running states
+                    boolean reserved = concurrencyLimitStorage.reserve(context, flow.getTenantId(), flow.getNamespace(), flow.getId(), flow.getConcurrency().getLimit());
+                    long running = reserved ? 0 : concurrencyLimitStorage.findById(context, flow.getTenantId(), flow.getNamespace(), flow.getId())
+                        .map(ConcurrencyLimit::getRunning)
+                        .orElse(flow.getConcurrency().getLimit());
 
-                    executor = executorService.checkConcurrencyLimit(executor, flow, execution, count.getCount());
+                    executor = executorService.checkConcurrencyLimit(executor, flow, execution, running);
 
                     // the execution has been queued, we save the queued execution and stops here
                     if (executor.getExecutionRunning() != null && executor.getExecutionRunning().getConcurrencyState() == ExecutionRunning.ConcurrencyState.QUEUED) {
@@ -410,6 +623,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                 }
                 executor = executorService.process(executor);
 
+                step.enter(JdbcExecutorStages.Stage.DEDUPLICATION);
                 if (!executor.getNexts().isEmpty() && deduplicateNexts(execution, executorState, executor.getNexts())) {
                     executor.withExecution(
                         executorService.onNexts(executor.getFlow(), executor.getExecution(), executor.getNexts()),
@@ -417,64 +631,73 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                     );
                 }
 
+                List<WorkerTask> workerTasksDedup = executor
+                    .getWorkerTasks()
+                    .stream()
+                    .filter(workerTask -> this.deduplicateWorkerTask(execution, executorState, workerTask.getTaskRun()))
+                    .toList();
+
+                List<SubflowExecution<?>> subflowExecutionDedup = executor
+                    .getSubflowExecutions()
+                    .stream()
+                    .filter(subflowExecution -> this.deduplicateSubflowExecution(execution, executorState, subflowExecution.getParentTaskRun()))
+                    .toList();
+
+                step.enter(JdbcExecutorStages.Stage.EMIT);
+
                 // worker task
                 if (!executor.getWorkerTasks().isEmpty()) {
-                    List<WorkerTask> workerTasksDedup = executor
-                        .getWorkerTasks()
-                        .stream()
-                        .filter(workerTask -> this.deduplicateWorkerTask(execution, executorState, workerTask.getTaskRun()))
-                        .toList();
-
-                    // WorkerTask not flowable to workerTask
+                    // WorkerTask not flowable to workerTask, emitted in bulk by worker group (the group can be null)
+                    Map<String, List<WorkerJob>> workerTasksByGroup = new HashMap<>();
                     workerTasksDedup
                         .stream()
                         .filter(workerTask -> workerTask.getTask().isSendToWorkerTask())
-                        .forEach(throwConsumer(workerTask -> workerTaskQueue.emit(workerGroupService.resolveGroupFromJob(workerTask), workerTask)));
+                        .forEach(workerTask -> workerTasksByGroup
+                            .computeIfAbsent(workerGroupService.resolveGroupFromJob(workerTask), k -> new ArrayList<>())
+                            .add(workerTask)
+                        );
+                    workerTasksByGroup.forEach(throwBiConsumer((workerGroup, workerTasks) -> workerTaskQueue.emit(workerGroup, workerTasks)));
 
                     // WorkerTask flowable to workerTaskResult as Running
-                    workerTasksDedup
+                    List<WorkerTaskResult> flowableWorkerTaskResults = workerTasksDedup
                         .stream()
                         .filter(workerTask -> workerTask.getTask().isFlowable())
                         .map(workerTask -> new WorkerTaskResult(workerTask.withTaskRun(workerTask.getTaskRun().withState(State.Type.RUNNING))))
-                        .forEach(throwConsumer(workerTaskResult -> workerTaskResultQueue.emit(workerTaskResult)));
+                        .toList();
+                    workerTaskResultQueue.emit(flowableWorkerTaskResults);
                 }
 
                 // worker tasks results
                 if (!executor.getWorkerTaskResults().isEmpty()) {
-                    executor.getWorkerTaskResults()
-                        .forEach(throwConsumer(workerTaskResult -> workerTaskResultQueue.emit(workerTaskResult)));
+                    workerTaskResultQueue.emit(executor.getWorkerTaskResults());
                 }
 
                 // subflow execution results
                 if (!executor.getSubflowExecutionResults().isEmpty()) {
-                    executor.getSubflowExecutionResults()
-                        .forEach(throwConsumer(subflowExecutionResult -> subflowExecutionResultQueue.emit(subflowExecutionResult)));
+                    subflowExecutionResultQueue.emit(executor.getSubflowExecutionResults());
                 }
 
                 // schedulerDelay
                 if (!executor.getExecutionDelays().isEmpty()) {
                     executor.getExecutionDelays()
-                        .forEach(executionDelay -> executionDelayStorage.save(executionDelay));
+                        .forEach(this::saveExecutionDelay);
                 }
 
                 // subflow execution watchers
                 if (!executor.getSubflowExecutions().isEmpty()) {
                     subflowExecutionStorage.save(executor.getSubflowExecutions());
 
-                    List<SubflowExecution<?>> subflowExecutionDedup = executor
-                        .getSubflowExecutions()
-                        .stream()
-                        .filter(subflowExecution -> this.deduplicateSubflowExecution(execution, executorState, subflowExecution.getParentTaskRun()))
-                        .toList();
-
+                    // logs and executions are emitted in bulk as a ForEachItem can create a lot of subflow executions
+                    List<LogEntry> subflowLogs = new ArrayList<>(subflowExecutionDedup.size());
+                    List<Execution> subflowExecutions = new ArrayList<>(subflowExecutionDedup.size());
                     subflowExecutionDedup
-                        .forEach(throwConsumer(subflowExecution -> {
+                        .forEach(subflowExecution -> {
                             Execution subExecution = subflowExecution.getExecution();
                             String log = String.format("Created new execution [[link execution=\"%s\" flowId=\"%s\" namespace=\"%s\"]]", subExecution.getId(), subExecution.getFlowId(), subExecution.getNamespace());
 
                             JdbcExecutor.log.info(log);
 
-                            logQueue.emit(LogEntry.of(subflowExecution.getParentTaskRun()).toBuilder()
+                            subflowLogs.add(LogEntry.of(subflowExecution.getParentTaskRun()).toBuilder()
                                 .level(Level.INFO)
                                 .message(log)
                                 .timestamp(subflowExecution.getParentTaskRun().getState().getStartDate())
@@ -482,13 +705,17 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                                 .build()
                             );
 
-                            executionQueue.emit(subflowExecution.getExecution());
+                            subflowExecutions.add(subExecution);
+                        });
+
+                    logQueue.emit(subflowLogs);
+                    executionQueue.emit(subflowExecutions);
 
-                            // send a running worker task result to track running vs created status
-                            if (subflowExecution.getParentTask().waitForExecution()) {
-                                sendSubflowExecutionResult(execution, subflowExecution, subflowExecution.getParentTaskRun());
-                            }
-                        }));
+                    // send a running worker task result to track running vs created status
+                    subflowExecutionDedup
+                        .stream()
+                        .filter(subflowExecution -> subflowExecution.getParentTask().waitForExecution())
+                        .forEach(subflowExecution -> sendSubflowExecutionResult(execution, subflowExecution, subflowExecution.getParentTaskRun()));
                 }
 
                 return Pair.of(
@@ -506,15 +733,16 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
                 return null;
             }
-        }));
+        })));
 
+        step.enter(JdbcExecutorStages.Stage.TO_EXECUTION);
         if (result != null) {
             this.toExecution(result);
         }
     }
 
     private void sendSubflowExecutionResult(Execution execution, SubflowExecution<?> subflowExecution, TaskRun taskRun) {
-        Flow workerTaskFlow = this.flowRepository.findByExecution(execution);
+        Flow workerTaskFlow = this.findFlow(execution);
 
         ExecutableTask<?> executableTask = subflowExecution.getParentTask();
 
@@ -546,85 +774,118 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         }
     }
 
-    private void workerTaskResultQueue(Either<WorkerTaskResult, DeserializationException> either) {
-        if (either.isRight()) {
-            log.error("Unable to deserialize a worker task result: {}", either.getRight().getMessage());
-            return;
-        }
+    private void workerTaskResultQueue(List<Either<WorkerTaskResult, DeserializationException>> eithers) {
+        Map<String, List<WorkerTaskResult>> messagesByExecution = new LinkedHashMap<>();
 
-        WorkerTaskResult message = either.getLeft();
-        if (skipExecutionService.skipExecution(message.getTaskRun())) {
-            log.warn("Skipping execution {}", message.getTaskRun().getExecutionId());
-            return;
-        }
+        eithers.forEach(either -> {
+            if (either.isRight()) {
+                log.error("Unable to deserialize a worker task result: {}", either.getRight().getMessage());
+                return;
+            }
+
+            WorkerTaskResult message = either.getLeft();
+            if (skipExecutionService.skipExecution(message.getTaskRun())) {
+                log.warn("Skipping execution {}", message.getTaskRun().getExecutionId());
+                return;
+            }
+
+            messagesByExecution
+                .computeIfAbsent(message.getTaskRun().getExecutionId(), k -> new ArrayList<>())
+                .add(message);
+        });
+
+        this.lanes.dispatchAll(messagesByExecution.entrySet().stream()
+            .map(entry -> new JdbcExecutorLanes.Message(entry.getKey(), () -> this.workerTaskResultQueue(entry.getKey(), entry.getValue())))
+            .toList()
+        );
+    }
+
+    /**
+     * Join the worker task results of the same execution in their order under a single lock, so they're persisted and emitted once.
+     */
+    private void workerTaskResultQueue(String executionId, List<WorkerTaskResult> messages) {
+        metricRegistry
+            .summary(MetricRegistry.EXECUTOR_WORKERTASKRESULT_COALESCED_COUNT)
+            .record(messages.size());
 
         if (log.isDebugEnabled()) {
-            executorService.log(log, true, message);
+            messages.forEach(message -> executorService.log(log, true, message));
         }
 
-        Executor executor = executionRepository.lock(message.getTaskRun().getExecutionId(), pair -> {
+        Executor executor = executionRepository.lock(executionId, pair -> {
             Execution execution = pair.getLeft();
             Executor current = new Executor(execution, null);
 
             if (execution == null) {
-                throw new IllegalStateException("Execution state don't exist for " + message.getTaskRun().getExecutionId() + ", receive " + message);
+                throw new IllegalStateException("Execution state don't exist for " + executionId + ", receive " + messages);
             }
 
-            if (execution.hasTaskRunJoinable(message.getTaskRun())) {
-                try {
-                    Flow flow = flowRepository.findByExecution(current.getExecution());
+            boolean joined = false;
+            for (WorkerTaskResult message : messages) {
+                if (!current.getExecution().hasTaskRunJoinable(message.getTaskRun())) {
+                    continue;
+                }
 
-                    // dynamic tasks
-                    Execution newExecution = executorService.addDynamicTaskRun(
-                        current.getExecution(),
-                        flow,
-                        message
-                    );
-                    if (newExecution != null) {
-                        current = current.withExecution(newExecution, "addDynamicTaskRun");
-                    }
+                joined = true;
+                current = this.joinWorkerTaskResult(current, message);
+            }
 
-                    TaskRun taskRun = message.getTaskRun();
-                    newExecution = current.getExecution().withTaskRun(taskRun);
-                    // If the worker task result is killed, we must check if it has a parents to also kill them if not already done.
-                    // Running flowable tasks that have child tasks running in the worker will be killed thanks to that.
-                    if (taskRun.getState().getCurrent() == State.Type.KILLED && taskRun.getParentTaskRunId() != null) {
-                        newExecution = executionService.killParentTaskruns(taskRun, newExecution);
-                    }
-                    current = current.withExecution(newExecution, "joinWorkerResult");
+            if (!joined) {
+                return null;
+            }
 
-                    // send metrics on terminated
-                    if (taskRun.getState().isTerminated()) {
-                        metricRegistry
-                            .counter(MetricRegistry.EXECUTOR_TASKRUN_ENDED_COUNT, metricRegistry.tags(message))
-                            .increment();
+            // join worker result
+            return Pair.of(
+                current,
+                pair.getRight()
+            );
+        });
 
-                        metricRegistry
-                            .timer(MetricRegistry.EXECUTOR_TASKRUN_ENDED_DURATION, metricRegistry.tags(message))
-                            .record(taskRun.getState().getDuration());
+        if (executor != null) {
+            this.toExecution(executor);
+        }
+    }
 
-                        log.trace("TaskRun terminated: {}", taskRun);
-                        workerJobRunningRepository.deleteByKey(taskRun.getId());
-                    }
+    private Executor joinWorkerTaskResult(Executor current, WorkerTaskResult message) {
+        try {
+            Flow flow = this.findFlow(current.getExecution());
 
-                    // join worker result
-                    return Pair.of(
-                        current,
-                        pair.getRight()
-                    );
-                } catch (InternalException e) {
-                    return Pair.of(
-                        handleFailedExecutionFromExecutor(current, e),
-                        pair.getRight()
-                    );
-                }
+            // dynamic tasks
+            Execution newExecution = executorService.addDynamicTaskRun(
+                current.getExecution(),
+                flow,
+                message
+            );
+            if (newExecution != null) {
+                current = current.withExecution(newExecution, "addDynamicTaskRun");
             }
 
-            return null;
-        });
+            TaskRun taskRun = message.getTaskRun();
+            newExecution = current.getExecution().withTaskRun(taskRun);
+            // If the worker task result is killed, we must check if it has a parents to also kill them if not already done.
+            // Running flowable tasks that have child tasks running in the worker will be killed thanks to that.
+            if (taskRun.getState().getCurrent() == State.Type.KILLED && taskRun.getParentTaskRunId() != null) {
+                newExecution = executionService.killParentTaskruns(taskRun, newExecution);
+            }
+            current = current.withExecution(newExecution, "joinWorkerResult");
 
-        if (executor != null) {
-            this.toExecution(executor);
+            // send metrics on terminated
+            if (taskRun.getState().isTerminated()) {
+                metricRegistry
+                    .counter(MetricRegistry.EXECUTOR_TASKRUN_ENDED_COUNT, metricRegistry.tags(message))
+                    .increment();
+
+                metricRegistry
+                    .timer(MetricRegistry.EXECUTOR_TASKRUN_ENDED_DURATION, metricRegistry.tags(message))
+                    .record(taskRun.getState().getDuration());
+
+                log.trace("TaskRun terminated: {}", taskRun);
+                workerJobRunningRepository.deleteByKey(taskRun.getId());
+            }
+
+            return current;
+        } catch (InternalException e) {
+            return handleFailedExecutionFromExecutor(current, e);
         }
     }
 
@@ -658,7 +919,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
             if (execution.hasTaskRunJoinable(message.getParentTaskRun())) { // TODO if we remove this check, we can avoid adding 'iteration' on the 'isSame()' method
                 try {
-                    Flow flow = flowRepository.findByExecution(current.getExecution());
+                    Flow flow = this.findFlow(current.getExecution());
 
                     // iterative tasks
                     Task task = flow.findTaskByTaskId(message.getParentTaskRun().getTaskId());
@@ -792,7 +1053,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     private Executor mayTransitExecutionToKillingStateAndGet(final String executionId) {
         return executionRepository.lock(executionId, pair -> {
             Execution currentExecution = pair.getLeft();
-            Flow flow = this.flowRepository.findByExecution(currentExecution);
+            Flow flow = this.findFlow(currentExecution);
 
             Execution killing = executionService.kill(currentExecution, flow);
             Executor current = new Executor(currentExecution, null)
@@ -819,6 +1080,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             }
 
             if (!shouldSend) {
+                this.countRunning(executor);
                 return;
             }
 
@@ -833,15 +1095,18 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                 ((JdbcQueue<Execution>) this.executionQueue).emitOnly(null, executor.getExecution());
             }
 
+            this.countRunning(executor);
+
             // delete if ended
             if (executorService.canBePurged(executor)) {
                 executorStateStorage.delete(executor.getExecution());
+                executionRepository.evict(executor.getExecution());
             }
 
             Execution execution = executor.getExecution();
             // handle flow triggers on state change
             if (!execution.getState().getCurrent().equals(executor.getOriginalState())) {
-                flowTriggerService.computeExecutionsFromFlowTriggers(execution, allFlows, Optional.of(multipleConditionStorage))
+                this.computeExecutionsFromFlowTriggers(execution)
                     .forEach(throwConsumer(executionFromFlowTrigger -> this.executionQueue.emit(executionFromFlowTrigger)));
             }
 
@@ -859,13 +1124,9 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                         subflowExecutionStorage.delete(subflowExecution);
                     });
 
-                // check if there exist a queued execution and submit it to the execution queue
+                // check if there exist queued executions and submit them to the execution queue
                 if (executor.getFlow().getConcurrency() != null && executor.getFlow().getConcurrency().getBehavior() == Concurrency.Behavior.QUEUE) {
-                    executionQueuedStorage.pop(executor.getFlow().getTenantId(),
-                        executor.getFlow().getNamespace(),
-                        executor.getFlow().getId(),
-                        throwConsumer(queued -> executionQueue.emit(queued.withState(State.Type.RUNNING)))
-                    );
+                    this.popQueuedExecutions(executor.getFlow());
                 }
             }
         } catch (QueueException e) {
@@ -884,6 +1145,132 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         }
     }
 
+    private static boolean isRunning(State.Type state) {
+        return state == State.Type.RUNNING || state == State.Type.PAUSED;
+    }
+
+    /**
+     * Update the running count of the flow if it has a concurrency limit and the execution moved into or out of the running states.
+     */
+    private void countRunning(Executor executor) {
+        boolean wasRunning = isRunning(executor.getOriginalState());
+        boolean running = isRunning(executor.getExecution().getState().getCurrent());
+
+        // admitted by this processing, its slot is already counted
+        if (executor.getExecutionRunning() != null && executor.getExecutionRunning().getConcurrencyState() == ExecutionRunning.ConcurrencyState.RUNNING) {
+            if (!running) {
+                Flow flow = executor.getFlow();
+                concurrencyLimitStorage.increment(flow.getTenantId(), flow.getNamespace(), flow.getId(), -1);
+            }
+            return;
+        }
+
+        if (wasRunning == running) {
+            return;
+        }
+
+        Flow flow = executor.getFlow() != null ? executor.getFlow() : this.findFlow(executor.getExecution());
+        if (flow.getConcurrency() != null) {
+            concurrencyLimitStorage.increment(flow.getTenantId(), flow.getNamespace(), flow.getId(), running ? 1 : -1);
+        }
+    }
+
+    /**
+     * Start the oldest queued executions of the flow while it's under its concurrency limit.
+     */
+    private void popQueuedExecutions(Flow flow) {
+        // a slot is taken before each pop, so the executors ending executions of the flow can't start more than its limit
+        while (concurrencyLimitStorage.reserve(flow.getTenantId(), flow.getNamespace(), flow.getId(), flow.getConcurrency().getLimit())) {
+            boolean popped = false;
+            try {
+                // the execution is emitted as running, so it will not be seen moving into the running states
+                popped = executionQueuedStorage.pop(
+                    flow.getTenantId(),
+                    flow.getNamespace(),
+                    flow.getId(),
+                    throwConsumer(queued -> executionQueue.emit(queued.withState(State.Type.RUNNING)))
+                );
+            } finally {
+                if (!popped) {
+                    concurrencyLimitStorage.increment(flow.getTenantId(), flow.getNamespace(), flow.getId(), -1);
+                }
+            }
+
+            if (!popped) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Set the running counts from the executions, as they can drift when an execution changes of state outside the executor,
+     * then start the queued executions that fit in the limits.
+     * <p>
+     * A count changed by an execution admitted or ended while the executions are counted is left as is,
+     * the next reconciliation will correct it.
+     */
+    private void reconcileConcurrencyLimits() {
+        if (shutdown.get()) {
+            return;
+        }
+
+        try {
+            Map<Optional<String>, List<Flow>> flowsByTenant = this.allFlows
+                .stream()
+                .filter(flow -> flow.getConcurrency() != null && !flow.isDeleted())
+                .collect(Collectors.groupingBy(flow -> Optional.ofNullable(flow.getTenantId())));
+
+            flowsByTenant.forEach((tenantId, flows) -> {
+                List<Integer> expected = flows
+                    .stream()
+                    .map(flow -> concurrencyLimitStorage.findById(flow.getTenantId(), flow.getNamespace(), flow.getId())
+                        .map(ConcurrencyLimit::getRunning)
+                        .orElse(0)
+                    )
+                    .toList();
+
+                List<ExecutionCount> counts = executionRepository.executionCounts(
+                    tenantId.orElse(null),
+                    flows.stream().map(flow -> new io.kestra.core.models.executions.statistics.Flow(flow.getNamespace(), flow.getId())).toList(),
+                    List.of(State.Type.RUNNING, State.Type.PAUSED),
+                    null,
+                    null
+                );
+
+                for (int i = 0; i < flows.size(); i++) {
+                    Flow flow = flows.get(i);
+                    concurrencyLimitStorage.reconcile(flow.getTenantId(), flow.getNamespace(), flow.getId(), expected.get(i), counts.get(i).getCount().intValue());
+
+                    if (flow.getConcurrency().getBehavior() == Concurrency.Behavior.QUEUE) {
+                        this.popQueuedExecutions(flow);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Unable to reconcile the concurrency limits", e);
+        }
+    }
+
+    private Flow findFlow(Execution execution) {
+        return this.flowCache.flow(execution, this.flowRepository::findByExecution);
+    }
+
+    private Flow findResolvedFlow(Execution execution) {
+        Flow flow = this.findFlow(execution);
+
+        // templates can be updated without updating the flow, so flows using them are resolved each time
+        if (templateExecutorInterface.isPresent() && flow.allTasks().anyMatch(task -> task instanceof Template)) {
+            return transform(flow, execution);
+        }
+
+        try {
+            return this.flowCache.resolved(execution, e -> pluginDefaultService.injectDefaults(flow));
+        } catch (Exception e) {
+            // not cached, the error is logged on the execution each time
+            return pluginDefaultService.injectDefaults(flow, execution);
+        }
+    }
+
     private Flow transform(Flow flow, Execution execution) {
         if (templateExecutorInterface.isPresent()) {
             try {
@@ -900,6 +1287,33 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         return pluginDefaultService.injectDefaults(flow, execution);
     }
 
+    /**
+     * Evaluate the flow triggers of an execution, holding the lock of each flow with a multiple condition it could update,
+     * so two executions ending together on different lanes can't lose a result or both fulfill the same window.
+     */
+    private List<Execution> computeExecutionsFromFlowTriggers(Execution execution) {
+        FlowTriggerIndex index = this.flowTriggerIndex;
+
+        List<String> keys = index.candidates(execution)
+            .stream()
+            .filter(candidate -> candidate.getTrigger().getConditions() != null &&
+                candidate.getTrigger().getConditions().stream().anyMatch(MultipleCondition.class::isInstance)
+            )
+            .map(candidate -> candidate.getFlow().uidWithoutRevision())
+            .distinct()
+            .toList();
+
+        // acquired in the consistent order of the stripes, so two lanes can't deadlock
+        List<Lock> locks = new ArrayList<>();
+        this.multipleConditionLocks.bulkGet(keys).forEach(locks::add);
+        locks.forEach(Lock::lock);
+        try {
+            return flowTriggerService.computeExecutionsFromFlowTriggers(execution, index, Optional.of(multipleConditionStorage));
+        } finally {
+            locks.reversed().forEach(Lock::unlock);
+        }
+    }
+
     /**
      * ExecutionDelay is currently two type of execution :
      * <br/>
@@ -912,61 +1326,90 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             return;
         }
 
-        executionDelayStorage.get(executionDelay -> {
-            Executor result = executionRepository.lock(executionDelay.getExecutionId(), pair -> {
-                Executor executor = new Executor(pair.getLeft(), null);
-                Flow flow = flowRepository.findByExecution(pair.getLeft());
+        // due delays are processed on the lane of their execution, in order with its other messages
+        this.delayWheel.advance(Instant.now())
+            .forEach(executionDelay -> this.lanes.dispatch(
+                executionDelay.getExecutionId(),
+                () -> executionDelayStorage.process(executionDelay, this::executionDelay)
+            ));
+    }
 
-                try {
-                    // Handle paused tasks
-                    if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.RESUME_FLOW)) {
-                        if (executionDelay.getTaskRunId() == null) {
-                            // if taskRunId is null, this means we restart a flow that was delayed at startup (scheduled on)
-                            Execution markAsExecution = pair.getKey().withState(executionDelay.getState());
-                            executor = executor.withExecution(markAsExecution, "pausedRestart");
-                        } else {
-                            // if there is a taskRun it means we restart a paused task
-                            Execution markAsExecution = executionService.markAs(
-                                pair.getKey(),
-                                flow,
-                                executionDelay.getTaskRunId(),
-                                executionDelay.getState()
-                            );
+    private void executionDelaySync() {
+        if (shutdown.get()) {
+            return;
+        }
 
-                            executor = executor.withExecution(markAsExecution, "pausedRestart");
-                        }
-                    }
-                    // Handle failed tasks
-                    else if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.RESTART_FAILED_TASK)) {
-                        Execution newAttempt = executionService.retryTask(
+        try {
+            // the delays due later are loaded by a next sync, the horizon is kept longer than the sync interval so none is late
+            Duration horizon = delayWheelConfiguration.getHorizon().compareTo(delayWheelConfiguration.getSyncInterval().multipliedBy(2)) > 0 ?
+                delayWheelConfiguration.getHorizon() :
+                delayWheelConfiguration.getSyncInterval().multipliedBy(2);
+
+            executionDelayStorage.findAllDueBefore(ZonedDateTime.now().plus(horizon)).forEach(this.delayWheel::add);
+        } catch (Exception e) {
+            log.warn("Unable to load the execution delays", e);
+        }
+    }
+
+    private void saveExecutionDelay(ExecutionDelay executionDelay) {
+        executionDelayStorage.save(executionDelay);
+        this.delayWheel.add(executionDelay);
+    }
+
+    private void executionDelay(ExecutionDelay executionDelay) {
+        Executor result = executionRepository.lock(executionDelay.getExecutionId(), pair -> {
+            Executor executor = new Executor(pair.getLeft(), null);
+            Flow flow = this.findFlow(pair.getLeft());
+
+            try {
+                // Handle paused tasks
+                if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.RESUME_FLOW)) {
+                    if (executionDelay.getTaskRunId() == null) {
+                        // if taskRunId is null, this means we restart a flow that was delayed at startup (scheduled on)
+                        Execution markAsExecution = pair.getKey().withState(executionDelay.getState());
+                        executor = executor.withExecution(markAsExecution, "pausedRestart");
+                    } else {
+                        // if there is a taskRun it means we restart a paused task
+                        Execution markAsExecution = executionService.markAs(
                             pair.getKey(),
-                            executionDelay.getTaskRunId()
+                            flow,
+                            executionDelay.getTaskRunId(),
+                            executionDelay.getState()
                         );
-                        executor = executor.withExecution(newAttempt, "retryFailedTask");
-                    }
-                    // Handle failed flow
-                    else if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.RESTART_FAILED_FLOW)) {
-                        Execution newExecution = executionService.replay(executor.getExecution(), null, null);
-                        executor = executor.withExecution(newExecution, "retryFailedFlow");
-                    }
-                    else if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.CONTINUE_FLOWABLE)) {
-                        Execution execution  = executionService.retryWaitFor(executor.getExecution(), executionDelay.getTaskRunId());
-                        executor = executor.withExecution(execution, "continueLoop");
+
+                        executor = executor.withExecution(markAsExecution, "pausedRestart");
                     }
-                } catch (Exception e) {
-                    executor = handleFailedExecutionFromExecutor(executor, e);
                 }
-
-                return Pair.of(
-                    executor,
-                    pair.getRight()
-                );
-            });
-
-            if (result != null) {
-                this.toExecution(result);
+                // Handle failed tasks
+                else if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.RESTART_FAILED_TASK)) {
+                    Execution newAttempt = executionService.retryTask(
+                        pair.getKey(),
+                        executionDelay.getTaskRunId()
+                    );
+                    executor = executor.withExecution(newAttempt, "retryFailedTask");
+                }
+                // Handle failed flow
+                else if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.RESTART_FAILED_FLOW)) {
+                    Execution newExecution = executionService.replay(executor.getExecution(), null, null);
+                    executor = executor.withExecution(newExecution, "retryFailedFlow");
+                }
+                else if (executionDelay.getDelayType().equals(ExecutionDelay.DelayType.CONTINUE_FLOWABLE)) {
+                    Execution execution  = executionService.retryWaitFor(executor.getExecution(), executionDelay.getTaskRunId());
+                    executor = executor.withExecution(execution, "continueLoop");
+                }
+            } catch (Exception e) {
+                executor = handleFailedExecutionFromExecutor(executor, e);
             }
+
+            return Pair.of(
+                executor,
+                pair.getRight()
+            );
         });
+
+        if (result != null) {
+            this.toExecution(result);
+        }
     }
 
     private boolean deduplicateNexts(Execution execution, ExecutorState executorState, List<TaskRun> taskRuns) {
@@ -1027,13 +1470,11 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     private Executor handleFailedExecutionFromExecutor(Executor executor, Exception e) {
         Execution.FailedExecutionWithLog failedExecutionWithLog = executor.getExecution().failedExecutionFromExecutor(e);
 
-        failedExecutionWithLog.getLogs().forEach(log -> {
-            try {
-                logQueue.emitAsync(log);
-            } catch (QueueException ex) {
-                // fail silently
-            }
-        });
+        try {
+            logQueue.emitAsync(failedExecutionWithLog.getLogs());
+        } catch (QueueException ex) {
+            // fail silently
+        }
 
         return executor.withExecution(failedExecutionWithLog.getExecution(), "exception");
     }
@@ -1051,7 +1492,21 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
             setState(ServiceState.TERMINATING);
             this.receiveCancellations.forEach(Runnable::run);
+            if (this.lanes != null) {
+                this.lanes.close(Duration.ofSeconds(30));
+            }
+            if (this.flowTopologyIndex != null) {
+                this.flushTopologies();
+            }
+            if (this.multipleConditionStorage instanceof JdbcMultipleConditionCache multipleConditionCache) {
+                try {
+                    multipleConditionCache.flush();
+                } catch (Exception e) {
+                    log.warn("Unable to persist the multiple condition windows", e);
+                }
+            }
             scheduledDelay.shutdown();
+            scheduledMaintenance.shutdown();
             setState(ServiceState.TERMINATED_GRACEFULLY);
 
             if (log.isDebugEnabled()) {
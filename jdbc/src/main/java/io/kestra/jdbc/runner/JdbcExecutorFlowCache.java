@@ -0,0 +1,94 @@
+package io.kestra.jdbc.runner;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.Flow;
+import io.micrometer.core.instrument.Counter;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The flows of the executions processed by the executor, as found in the repository and once resolved with their templates and plugin defaults.
+ * <p>
+ * Entries are keyed by tenant, namespace, id and revision. As an execution without revision uses the last revision of its flow,
+ * all the entries of a flow are invalidated when it's updated or deleted.
+ */
+public class JdbcExecutorFlowCache {
+    private final Cache<Key, Flow> flows;
+    private final Cache<Key, Flow> resolvedFlows;
+
+    private final Counter flowHitCount;
+    private final Counter flowMissCount;
+    private final Counter resolvedHitCount;
+    private final Counter resolvedMissCount;
+
+    public JdbcExecutorFlowCache(Configuration configuration, MetricRegistry metricRegistry) {
+        this.flows = CacheBuilder.newBuilder()
+            .maximumSize(configuration.getMaxSize())
+            .build();
+        this.resolvedFlows = CacheBuilder.newBuilder()
+            .maximumSize(configuration.getMaxSize())
+            .build();
+
+        this.flowHitCount = metricRegistry.counter(MetricRegistry.EXECUTOR_FLOW_CACHE_COUNT, "cache", "flow", "result", "hit");
+        this.flowMissCount = metricRegistry.counter(MetricRegistry.EXECUTOR_FLOW_CACHE_COUNT, "cache", "flow", "result", "miss");
+        this.resolvedHitCount = metricRegistry.counter(MetricRegistry.EXECUTOR_FLOW_CACHE_COUNT, "cache", "resolved", "result", "hit");
+        this.resolvedMissCount = metricRegistry.counter(MetricRegistry.EXECUTOR_FLOW_CACHE_COUNT, "cache", "resolved", "result", "miss");
+    }
+
+    /**
+     * The flow of the execution, loaded on a miss.
+     */
+    public Flow flow(Execution execution, Function<Execution, Flow> loader) {
+        return get(this.flows, execution, loader, this.flowHitCount, this.flowMissCount);
+    }
+
+    /**
+     * The resolved flow of the execution, resolved on a miss. Nothing is cached if the resolver throws.
+     */
+    public Flow resolved(Execution execution, Function<Execution, Flow> resolver) {
+        return get(this.resolvedFlows, execution, resolver, this.resolvedHitCount, this.resolvedMissCount);
+    }
+
+    public void invalidate(Flow flow) {
+        this.flows.asMap().keySet().removeIf(key -> key.isRevisionOf(flow));
+        this.resolvedFlows.asMap().keySet().removeIf(key -> key.isRevisionOf(flow));
+    }
+
+    private static Flow get(Cache<Key, Flow> cache, Execution execution, Function<Execution, Flow> loader, Counter hitCount, Counter missCount) {
+        Key key = new Key(execution.getTenantId(), execution.getNamespace(), execution.getFlowId(), execution.getFlowRevision());
+
+        Flow flow = cache.getIfPresent(key);
+        if (flow != null) {
+            hitCount.increment();
+            return flow;
+        }
+
+        // loaded outside the cache so exceptions are thrown as is, a concurrent load of the same flow only costs a second load
+        missCount.increment();
+        flow = loader.apply(execution);
+        cache.put(key, flow);
+
+        return flow;
+    }
+
+    private record Key(String tenantId, String namespace, String id, Integer revision) {
+        private boolean isRevisionOf(Flow flow) {
+            return Objects.equals(this.tenantId, flow.getTenantId()) &&
+                Objects.equals(this.namespace, flow.getNamespace()) &&
+                Objects.equals(this.id, flow.getId());
+        }
+    }
+
+    @ConfigurationProperties("kestra.jdbc.executor.flow-cache")
+    @Getter
+    public static class Configuration {
+        // maximum number of flow revisions cached by an executor, for each of the found and resolved flows
+        Integer maxSize = 1000;
+    }
+}
@@ -0,0 +1,197 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.utils.ThreadMainFactoryBuilder;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.transaction.exceptions.CannotCreateTransactionException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process the messages received by the executor on a fixed number of lanes.
+ * <p>
+ * Messages are dispatched to a lane by hashing their key (the execution id), so all the messages of an execution,
+ * whatever the queue they come from, are processed in order by the same lane while the other executions proceed in parallel.
+ * Each lane has a bounded queue: when it's full, the polling thread is blocked until the lane catches up.
+ * <p>
+ * The messages of a poll are acknowledged when they're fetched, so the polling thread dispatches them with {@link #dispatchAll(List)}
+ * and waits for them to be processed before the next poll: at most one poll by queue is acknowledged and not processed yet, as without lanes.
+ */
+@Slf4j
+public class JdbcExecutorLanes {
+    private final List<ThreadPoolExecutor> lanes = new ArrayList<>();
+    private final List<AtomicInteger> depths = new ArrayList<>();
+
+    public JdbcExecutorLanes(Configuration configuration, ThreadMainFactoryBuilder threadFactoryBuilder, MetricRegistry metricRegistry) {
+        for (int i = 0; i < configuration.getCount(); i++) {
+            this.lanes.add(new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(configuration.getCapacity()),
+                threadFactoryBuilder.build("jdbc-executor-lane-" + i),
+                (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Executor lane is shut down");
+                    }
+
+                    try {
+                        executor.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                }
+            ));
+
+            this.depths.add(metricRegistry.gauge(MetricRegistry.EXECUTOR_LANE_DEPTH_COUNT, new AtomicInteger(0), "lane", String.valueOf(i)));
+        }
+    }
+
+    /**
+     * Dispatch a message on the lane of its key, it's dropped once the lanes are closed.
+     * <p>
+     * As in the poll loop, a {@link CannotCreateTransactionException} is only logged and the lane goes on with the next message,
+     * any other exception reaches the uncaught exception handler of the lane thread.
+     *
+     * @return whether the message was dispatched
+     */
+    public boolean dispatch(String key, Runnable runnable) {
+        return this.dispatch(key, runnable, () -> {});
+    }
+
+    /**
+     * @param onDrop called instead of the runnable when the message is dropped by {@link #close(Duration)} before being processed
+     */
+    private boolean dispatch(String key, Runnable runnable, Runnable onDrop) {
+        int lane = key == null ? 0 : Math.floorMod(key.hashCode(), this.lanes.size());
+        ThreadPoolExecutor executor = this.lanes.get(lane);
+        AtomicInteger depth = this.depths.get(lane);
+
+        if (executor.isShutdown()) {
+            log.debug("Executor lane is shut down, message with key '{}' is not processed", key);
+            return false;
+        }
+
+        depth.incrementAndGet();
+        try {
+            executor.execute(new LaneTask(key, runnable, onDrop, depth));
+
+            return true;
+        } catch (RejectedExecutionException e) {
+            // the lane was shut down while waiting for room
+            depth.decrementAndGet();
+            log.debug("Executor lane is shut down, message with key '{}' is not processed", key);
+
+            return false;
+        }
+    }
+
+    /**
+     * Dispatch the messages of a poll and wait for all of them to be processed, the lanes still process them in parallel.
+     */
+    public void dispatchAll(List<Message> messages) {
+        CountDownLatch processed = new CountDownLatch(messages.size());
+
+        for (Message message : messages) {
+            boolean dispatched = this.dispatch(
+                message.key(),
+                () -> {
+                    try {
+                        message.runnable().run();
+                    } finally {
+                        processed.countDown();
+                    }
+                },
+                processed::countDown
+            );
+
+            if (!dispatched) {
+                processed.countDown();
+            }
+        }
+
+        try {
+            processed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop accepting messages and wait for the ones already dispatched to be processed.
+     */
+    public void close(Duration timeout) {
+        this.lanes.forEach(ThreadPoolExecutor::shutdown);
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (ThreadPoolExecutor lane : this.lanes) {
+            try {
+                if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("Executor lane didn't terminate in time, {} acknowledged messages will not be processed", lane.getQueue().size());
+                    this.drop(lane.shutdownNow());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.drop(lane.shutdownNow());
+            }
+        }
+    }
+
+    /**
+     * Release the poll waiting for the messages removed from a lane without being processed.
+     */
+    private void drop(List<Runnable> dropped) {
+        dropped.forEach(runnable -> {
+            if (runnable instanceof LaneTask task) {
+                task.drop();
+            }
+        });
+    }
+
+    private record LaneTask(String key, Runnable runnable, Runnable onDrop, AtomicInteger depth) implements Runnable {
+        @Override
+        public void run() {
+            try {
+                runnable.run();
+            } catch (CannotCreateTransactionException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Can't process message with key '{}'", key, e);
+                }
+            } finally {
+                depth.decrementAndGet();
+            }
+        }
+
+        private void drop() {
+            depth.decrementAndGet();
+            onDrop.run();
+        }
+    }
+
+    /**
+     * A message to process on the lane of its key, a null key goes to the first lane.
+     */
+    public record Message(String key, Runnable runnable) {
+    }
+
+    @ConfigurationProperties("kestra.jdbc.executor.lanes")
+    @Getter
+    public static class Configuration {
+        Integer count = Runtime.getRuntime().availableProcessors();
+
+        // maximum number of messages waiting on a lane before the dispatch is blocked
+        Integer capacity = 1000;
+    }
+}
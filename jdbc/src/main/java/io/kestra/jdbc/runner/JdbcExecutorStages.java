@@ -0,0 +1,171 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.Execution;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Time spent by the executor in each stage of the processing of an execution message, with a log of the breakdown for the slow ones.
+ * <p>
+ * Timers are tagged by namespace and flow up to a maximum number of flows, the other flows are tagged as {@value #OTHER}
+ * so the number of timers stays bounded whatever the number of flows.
+ */
+@Slf4j
+public class JdbcExecutorStages {
+    static final String OTHER = "_other";
+
+    private final MetricRegistry metricRegistry;
+    private final int maxFlows;
+    private final long slowThreshold;
+
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public JdbcExecutorStages(Configuration configuration, MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+        this.maxFlows = configuration.getMaxFlows();
+        this.slowThreshold = configuration.getSlowThreshold().toNanos();
+    }
+
+    /**
+     * Start timing the processing of a message, in the {@link Stage#LOCK} stage.
+     */
+    public Step start(Execution execution) {
+        return new Step(execution);
+    }
+
+    private Timer[] timers(Execution execution) {
+        String key = execution.getTenantId() + "/" + execution.getNamespace() + "/" + execution.getFlowId();
+
+        Timer[] flowTimers = this.timers.get(key);
+        if (flowTimers != null) {
+            return flowTimers;
+        }
+
+        if (this.timers.size() >= this.maxFlows) {
+            return this.timers.computeIfAbsent(OTHER, k -> this.register(OTHER, OTHER));
+        }
+
+        return this.timers.computeIfAbsent(key, k -> this.register(execution.getNamespace(), execution.getFlowId()));
+    }
+
+    private Timer[] register(String namespace, String flowId) {
+        return Arrays.stream(Stage.values())
+            .map(stage -> this.metricRegistry.timer(
+                MetricRegistry.EXECUTOR_STAGE_DURATION,
+                MetricRegistry.TAG_STAGE, stage.tag(),
+                MetricRegistry.TAG_NAMESPACE_ID, namespace,
+                MetricRegistry.TAG_FLOW_ID, flowId
+            ))
+            .toArray(Timer[]::new);
+    }
+
+    public enum Stage {
+        LOCK,
+        FLOW,
+        PROCESS,
+        DEDUPLICATION,
+        EMIT,
+        PERSIST,
+        TO_EXECUTION;
+
+        private String tag() {
+            return this.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * The durations of the stages of one message, each stage lasts until the next one is entered.
+     * A step is only used by the thread processing the message.
+     */
+    public class Step {
+        private final Execution execution;
+        private final long[] durations = new long[Stage.values().length];
+
+        private Stage current = Stage.LOCK;
+        private long since = System.nanoTime();
+
+        private Step(Execution execution) {
+            this.execution = execution;
+        }
+
+        public void enter(Stage stage) {
+            long now = System.nanoTime();
+
+            this.durations[this.current.ordinal()] += now - this.since;
+            this.current = stage;
+            this.since = now;
+        }
+
+        /**
+         * Wrap the function applied by the lock: the stages before it are the lock acquisition and the ones after it are the persistence.
+         */
+        public <T, R> Function<T, R> locked(Function<T, R> function) {
+            return t -> {
+                this.enter(Stage.FLOW);
+                try {
+                    return function.apply(t);
+                } finally {
+                    this.enter(Stage.PERSIST);
+                }
+            };
+        }
+
+        public <T, U, R> BiFunction<T, U, R> locked(BiFunction<T, U, R> function) {
+            return (t, u) -> {
+                this.enter(Stage.FLOW);
+                try {
+                    return function.apply(t, u);
+                } finally {
+                    this.enter(Stage.PERSIST);
+                }
+            };
+        }
+
+        public void end() {
+            this.enter(this.current);
+
+            Timer[] flowTimers = JdbcExecutorStages.this.timers(this.execution);
+            long total = 0;
+            for (Stage stage : Stage.values()) {
+                flowTimers[stage.ordinal()].record(this.durations[stage.ordinal()], TimeUnit.NANOSECONDS);
+                total += this.durations[stage.ordinal()];
+            }
+
+            if (total > JdbcExecutorStages.this.slowThreshold) {
+                log.warn(
+                    "Slow executor step of {}ms on execution '{}' of flow '{}.{}': {}",
+                    TimeUnit.NANOSECONDS.toMillis(total),
+                    this.execution.getId(),
+                    this.execution.getNamespace(),
+                    this.execution.getFlowId(),
+                    Arrays.stream(Stage.values())
+                        .map(stage -> stage.tag() + "=" + TimeUnit.NANOSECONDS.toMillis(this.durations[stage.ordinal()]) + "ms")
+                        .collect(Collectors.joining(", "))
+                );
+            }
+        }
+    }
+
+    @ConfigurationProperties("kestra.jdbc.executor.stages")
+    @Getter
+    public static class Configuration {
+        // number of flows with their own timers, the others share the same ones
+        Integer maxFlows = 1000;
+
+        // a step slower than this is logged with the duration of each stage
+        Duration slowThreshold = Duration.ofSeconds(1);
+    }
+}
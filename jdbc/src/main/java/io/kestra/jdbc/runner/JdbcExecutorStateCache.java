@@ -0,0 +1,83 @@
+package io.kestra.jdbc.runner;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.runners.ExecutorState;
+import io.micrometer.core.instrument.Counter;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * The latest execution and executor state written by this executor for each execution in progress, with the version of the execution row.
+ * <p>
+ * An entry is only valid while the version of the row is unchanged: the executor compares it with the cached version once the row is locked,
+ * any write from another executor or from the API increments it, the entry must then be evicted and reloaded.
+ * <p>
+ * The least recently used entries are evicted when full, and the entries not accessed for a while are expired, as the executions
+ * ended by another executor or deleted through the API are never evicted otherwise.
+ */
+public class JdbcExecutorStateCache {
+    private final Cache<String, Entry> entries;
+
+    private final Counter hitCount;
+    private final Counter missCount;
+    private final Counter conflictCount;
+
+    public JdbcExecutorStateCache(Configuration configuration, MetricRegistry metricRegistry) {
+        this.entries = CacheBuilder.newBuilder()
+            .maximumSize(configuration.getMaxSize())
+            .expireAfterAccess(configuration.getExpireAfterAccess())
+            .build();
+
+        this.hitCount = metricRegistry.counter(MetricRegistry.EXECUTOR_STATE_CACHE_COUNT, "result", "hit");
+        this.missCount = metricRegistry.counter(MetricRegistry.EXECUTOR_STATE_CACHE_COUNT, "result", "miss");
+        this.conflictCount = metricRegistry.counter(MetricRegistry.EXECUTOR_STATE_CACHE_COUNT, "result", "conflict");
+    }
+
+    public Entry get(String executionId) {
+        Entry entry = this.entries.getIfPresent(executionId);
+
+        if (entry == null) {
+            this.missCount.increment();
+        } else {
+            this.hitCount.increment();
+        }
+
+        return entry;
+    }
+
+    public void put(Execution execution, ExecutorState executorState, long version) {
+        this.entries.put(execution.getId(), new Entry(execution, executorState, version));
+    }
+
+    /**
+     * The row has been updated since the entry was cached.
+     */
+    public void conflict(String executionId) {
+        this.conflictCount.increment();
+        this.entries.invalidate(executionId);
+    }
+
+    public void evict(String executionId) {
+        this.entries.invalidate(executionId);
+    }
+
+    public record Entry(Execution execution, ExecutorState executorState, long version) {
+    }
+
+    @ConfigurationProperties("kestra.jdbc.executor.state-cache")
+    @Getter
+    public static class Configuration {
+        Boolean enabled = true;
+
+        // maximum number of executions in progress cached by an executor
+        Integer maxSize = 10_000;
+
+        // an execution without any message for this long is read from the database again
+        Duration expireAfterAccess = Duration.ofHours(1);
+    }
+}
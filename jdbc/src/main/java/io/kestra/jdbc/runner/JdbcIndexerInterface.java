@@ -2,6 +2,10 @@ package io.kestra.jdbc.runner;
 
 import org.jooq.DSLContext;
 
+import java.util.List;
+
 public interface JdbcIndexerInterface<T> {
     T save(DSLContext context, T message);
+
+    List<T> saveAll(DSLContext context, List<T> messages);
 }
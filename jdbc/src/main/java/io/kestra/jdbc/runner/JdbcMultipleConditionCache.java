@@ -0,0 +1,118 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.triggers.multipleflows.MultipleConditionStorageInterface;
+import io.kestra.core.models.triggers.multipleflows.MultipleConditionWindow;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The multiple condition windows of the executor kept in memory, read without a database round-trip and persisted in batches.
+ * <p>
+ * Windows are keyed by flow and condition and updated atomically for each key, so the executor lanes only contend on the same window.
+ * Saved and deleted windows are written to the database on {@link #flush()}, and loaded back from the database when the executor starts.
+ * <p>
+ * The windows of an executor are not seen by the other executors until they're flushed and loaded again,
+ * so the cache must only be enabled when a single executor is running.
+ */
+public class JdbcMultipleConditionCache implements MultipleConditionStorageInterface {
+    private final AbstractJdbcMultipleConditionStorage storage;
+
+    private final Map<String, MultipleConditionWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, MultipleConditionWindow> saved = new ConcurrentHashMap<>();
+    private final Map<String, MultipleConditionWindow> deleted = new ConcurrentHashMap<>();
+
+    public JdbcMultipleConditionCache(AbstractJdbcMultipleConditionStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Replace the windows in memory by the ones in the database.
+     */
+    public void load() {
+        Map<String, MultipleConditionWindow> loaded = new HashMap<>();
+        this.storage.findAll().forEach(window -> loaded.put(window.uid(), window));
+
+        this.windows.clear();
+        this.windows.putAll(loaded);
+    }
+
+    @Override
+    public Optional<MultipleConditionWindow> get(Flow flow, String conditionId) {
+        return Optional.ofNullable(this.windows.get(MultipleConditionWindow.uid(flow, conditionId)));
+    }
+
+    @Override
+    public List<MultipleConditionWindow> expired(String tenantId) {
+        ZonedDateTime now = ZonedDateTime.now();
+
+        return this.windows.values()
+            .stream()
+            .filter(window -> Objects.equals(window.getTenantId(), tenantId))
+            .filter(window -> window.getStart().isBefore(now) && window.getEnd().isBefore(now))
+            .toList();
+    }
+
+    @Override
+    public void save(List<MultipleConditionWindow> multipleConditionWindows) {
+        // the dirty windows are recorded while the key is locked by compute, so the last merge of a window is always the one flushed
+        multipleConditionWindows.forEach(window -> this.windows.compute(window.uid(), (uid, current) -> {
+            // two lanes can update the same window from the same state, their results are merged so none is lost
+            MultipleConditionWindow merged = current != null && current.getStart().isEqual(window.getStart()) ?
+                window.with(current.getResults()) :
+                window;
+
+            this.deleted.remove(uid);
+            this.saved.put(uid, merged);
+
+            return merged;
+        }));
+    }
+
+    @Override
+    public void delete(MultipleConditionWindow multipleConditionWindow) {
+        this.windows.compute(multipleConditionWindow.uid(), (uid, current) -> {
+            this.saved.remove(uid);
+            this.deleted.put(uid, multipleConditionWindow);
+
+            return null;
+        });
+    }
+
+    /**
+     * Write the windows saved and deleted since the last flush, a window changed during the flush is written by the next one.
+     */
+    public void flush() {
+        List<Map.Entry<String, MultipleConditionWindow>> toSave = new ArrayList<>(this.saved.entrySet());
+        List<Map.Entry<String, MultipleConditionWindow>> toDelete = new ArrayList<>(this.deleted.entrySet());
+
+        if (!toSave.isEmpty()) {
+            this.storage.save(toSave.stream().map(Map.Entry::getValue).toList());
+            toSave.forEach(entry -> this.saved.remove(entry.getKey(), entry.getValue()));
+        }
+
+        toDelete.forEach(entry -> {
+            this.storage.delete(entry.getValue());
+            this.deleted.remove(entry.getKey(), entry.getValue());
+        });
+    }
+
+    @ConfigurationProperties("kestra.jdbc.executor.multiple-condition-cache")
+    @Getter
+    public static class Configuration {
+        // only when a single executor is running, see JdbcMultipleConditionCache
+        Boolean enabled = false;
+
+        Duration flushInterval = Duration.ofSeconds(1);
+    }
+}
@@ -3,7 +3,9 @@ package io.kestra.jdbc.runner;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.CaseFormat;
+import com.google.common.collect.Lists;
 import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.metrics.MetricRegistry;
 import io.kestra.core.models.executions.Execution;
 import io.kestra.core.queues.QueueException;
 import io.kestra.core.queues.QueueInterface;
@@ -11,6 +13,7 @@ import io.kestra.core.queues.QueueService;
 import io.kestra.core.utils.Either;
 import io.kestra.core.utils.ExecutorsUtils;
 import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.Rethrow;
 import io.kestra.jdbc.JdbcTableConfigs;
 import io.kestra.jdbc.JdbcMapper;
 import io.kestra.jdbc.JooqDSLContextWrapper;
@@ -18,31 +21,46 @@ import io.kestra.core.queues.MessageTooBigException;
 import io.kestra.jdbc.repository.AbstractJdbcRepository;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
 import io.micronaut.transaction.exceptions.CannotCreateTransactionException;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.InsertSetMoreStep;
 import org.jooq.JSONB;
 import org.jooq.Record;
+import org.jooq.Record2;
 import org.jooq.Result;
 import org.jooq.Table;
 import org.jooq.impl.DSL;
 
 import java.io.IOException;
+import java.sql.Timestamp;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.ToDoubleFunction;
 
 import static io.kestra.core.utils.Rethrow.throwRunnable;
 
@@ -54,6 +72,9 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
     private final ExecutorService poolExecutor;
     private final ExecutorService asyncPoolExecutor;
 
+    // with virtual threads the async pool is not bounded anymore, this keeps the same limit on the database connections
+    private final Semaphore asyncPermits;
+
     protected final QueueService queueService;
 
     protected final Class<T> cls;
@@ -68,12 +89,19 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
 
     protected final JdbcQueueIndexer jdbcQueueIndexer;
 
+    protected final JdbcQueueCodec codec;
+
+    private final Duration partitionRetention;
+
+    private final MetricRegistry metricRegistry;
+
     private final AtomicBoolean isClosed = new AtomicBoolean(false);
 
     public JdbcQueue(Class<T> cls, ApplicationContext applicationContext) {
         ExecutorsUtils executorsUtils = applicationContext.getBean(ExecutorsUtils.class);
-        this.poolExecutor = executorsUtils.cachedThreadPool("jdbc-queue-" + cls.getSimpleName());
-        this.asyncPoolExecutor = executorsUtils.maxCachedThreadPool(MAX_ASYNC_THREADS, "jdbc-queue-async-" + cls.getSimpleName());
+        this.poolExecutor = executorsUtils.ioCachedThreadPool("jdbc-queue-" + cls.getSimpleName());
+        this.asyncPoolExecutor = executorsUtils.ioMaxCachedThreadPool(MAX_ASYNC_THREADS, "jdbc-queue-async-" + cls.getSimpleName());
+        this.asyncPermits = executorsUtils.isVirtualThreads() ? new Semaphore(MAX_ASYNC_THREADS) : null;
 
         this.queueService = applicationContext.getBean(QueueService.class);
         this.cls = cls;
@@ -86,13 +114,45 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         this.table = DSL.table(jdbcTableConfigs.tableConfig("queues").table());
 
         this.jdbcQueueIndexer = applicationContext.getBean(JdbcQueueIndexer.class);
+        this.codec = applicationContext.getBean(JdbcQueueCodec.class);
+        this.metricRegistry = applicationContext.getBean(MetricRegistry.class);
+
+        this.partitionRetention = applicationContext.findBean(JdbcCleaner.Configuration.class)
+            .filter(cleaner -> cleaner.getPartitioning() != null && cleaner.getRetention() != null)
+            .map(JdbcCleaner.Configuration::getRetention)
+            .orElse(null);
+
+        if (this.codec.isBinary() && !this.supportsBinaryValue()) {
+            log.warn("Binary queue payloads are not supported by this database, messages will be stored as JSON");
+        }
+    }
+
+    /**
+     * Whether the queues table has a binary value column to store messages encoded by the {@link JdbcQueueCodec}.
+     */
+    protected boolean supportsBinaryValue() {
+        return false;
+    }
+
+    /**
+     * When the queues table is partitioned by creation date, restrict the fetch to the partitions that are not expired yet,
+     * so that the database can prune the other ones.
+     */
+    protected Condition partitionCondition() {
+        if (this.partitionRetention == null) {
+            return DSL.noCondition();
+        }
+
+        return AbstractJdbcRepository.field("created").greaterOrEqual(ZonedDateTime.now().minus(this.partitionRetention).toOffsetDateTime());
     }
 
     protected Map<Field<Object>, Object> produceFields(String consumerGroup, String key, T message) throws QueueException {
+        boolean binary = this.codec.isBinary() && this.supportsBinaryValue();
+
         byte[] bytes;
         try {
-            bytes = MAPPER.writeValueAsBytes(message);
-        } catch (JsonProcessingException e) {
+            bytes = binary ? this.codec.encode(message) : MAPPER.writeValueAsBytes(message);
+        } catch (IOException e) {
             throw new QueueException("Unable to serialize the message", e);
         }
 
@@ -107,7 +167,11 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         Map<Field<Object>, Object> fields = new HashMap<>();
         fields.put(AbstractJdbcRepository.field("type"), this.cls.getName());
         fields.put(AbstractJdbcRepository.field("key"), key != null ? key : IdUtils.create());
-        fields.put(AbstractJdbcRepository.field("value"), JSONB.valueOf(new String(bytes)));
+        if (binary) {
+            fields.put(AbstractJdbcRepository.field("binary_value"), bytes);
+        } else {
+            fields.put(AbstractJdbcRepository.field("value"), JSONB.valueOf(new String(bytes)));
+        }
 
         if (consumerGroup != null) {
             fields.put(AbstractJdbcRepository.field("consumer_group"), consumerGroup);
@@ -134,6 +198,41 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
                 .insertInto(table)
                 .set(fields)
                 .execute();
+
+            this.notifyConsumers(context);
+        });
+    }
+
+    private void produce(String consumerGroup, List<T> messages) throws QueueException {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("New messages: topic '{}', count {}", this.cls.getName(), messages.size());
+        }
+
+        List<Map<Field<Object>, Object>> fields = new ArrayList<>(messages.size());
+        for (T message : messages) {
+            fields.add(this.produceFields(consumerGroup, queueService.key(message), message));
+        }
+
+        dslContextWrapper.transaction(configuration -> {
+            DSLContext context = DSL.using(configuration);
+
+            jdbcQueueIndexer.accept(context, messages);
+
+            // chunked to stay under the bind parameters and packet size limits of the databases
+            for (List<Map<Field<Object>, Object>> chunk : Lists.partition(fields, Math.max(1, this.configuration.getInsertBatchSize()))) {
+                InsertSetMoreStep<Record> insert = null;
+                for (Map<Field<Object>, Object> field : chunk) {
+                    insert = insert == null ? context.insertInto(table).set(field) : insert.newRecord().set(field);
+                }
+
+                insert.execute();
+            }
+
+            this.notifyConsumers(context);
         });
     }
 
@@ -148,7 +247,50 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
 
     @Override
     public void emitAsync(String consumerGroup, T message) throws QueueException {
-        this.asyncPoolExecutor.submit(throwRunnable(() -> this.emit(consumerGroup, message)));
+        this.submitAsync(() -> this.emit(consumerGroup, message));
+    }
+
+    /**
+     * Emit all the messages in a single transaction with multi-row inserts of at most {@link Configuration#getInsertBatchSize()} rows,
+     * if one message can't be serialized or is too big, none are emitted.
+     */
+    @Override
+    public void emit(String consumerGroup, List<T> messages) throws QueueException {
+        this.produce(consumerGroup, messages);
+    }
+
+    @Override
+    public void emitAsync(String consumerGroup, List<T> messages) throws QueueException {
+        this.submitAsync(() -> this.emit(consumerGroup, messages));
+    }
+
+    private void submitAsync(Rethrow.RunnableChecked<QueueException> runnable) throws QueueException {
+        if (this.asyncPermits == null) {
+            this.asyncPoolExecutor.submit(throwRunnable(runnable));
+            return;
+        }
+
+        // the caller never waits, the log appenders emit asynchronously from the task threads: without a free permit,
+        // the emit waits for one in its own virtual thread, like it waits in the queue of the platform thread pool
+        boolean acquired = this.asyncPermits.tryAcquire();
+        try {
+            this.asyncPoolExecutor.submit(throwRunnable(() -> {
+                if (!acquired) {
+                    this.asyncPermits.acquireUninterruptibly();
+                }
+
+                try {
+                    runnable.run();
+                } finally {
+                    this.asyncPermits.release();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            if (acquired) {
+                this.asyncPermits.release();
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -162,16 +304,16 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
     }
 
     protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, Integer offset) {
-        return this.receiveFetch(ctx, consumerGroup, offset, true);
+        return this.receiveFetch(ctx, consumerGroup, offset, configuration.getPollSize(), true);
     }
 
-    abstract protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, Integer offset, boolean forUpdate);
+    abstract protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, Integer offset, int pollSize, boolean forUpdate);
 
     protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType) {
-        return this.receiveFetch(ctx, consumerGroup, queueType, true);
+        return this.receiveFetch(ctx, consumerGroup, queueType, configuration.getPollSize(), true);
     }
 
-    abstract protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate);
+    abstract protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, int pollSize, boolean forUpdate);
 
     abstract protected void updateGroupOffsets(DSLContext ctx, String consumerGroup, String queueType, List<Integer> offsets);
 
@@ -192,11 +334,15 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
             }
         });
 
-        return this.poll(() -> {
+        ConsumerMetrics metrics = new ConsumerMetrics(consumerGroup, null);
+
+        return this.poll(metrics, null, pollSize -> {
+            long start = System.nanoTime();
+
             Result<Record> fetch = dslContextWrapper.transactionResult(configuration -> {
                 DSLContext ctx = DSL.using(configuration);
 
-                Result<Record> result = this.receiveFetch(ctx, consumerGroup, maxOffset.get(), forUpdate);
+                Result<Record> result = this.receiveFetch(ctx, consumerGroup, maxOffset.get(), pollSize, forUpdate);
 
                 if (!result.isEmpty()) {
                     List<Integer> offsets = result.map(record -> record.get("offset", Integer.class));
@@ -208,6 +354,7 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
             });
 
             this.send(fetch, consumer);
+            metrics.dispatched(fetch.size(), start);
 
             return fetch.size();
         });
@@ -222,17 +369,40 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
                 eithers.forEach(consumer);
             },
             false,
-            forUpdate
+            forUpdate,
+            null
+        );
+    }
+
+    /**
+     * Receive the messages of each fetch at once, so the consumer can process the related ones together.
+     */
+    public Runnable receiveBatch(String consumerGroup, Class<?> queueType, Consumer<List<Either<T, DeserializationException>>> consumer) {
+        return this.receiveImpl(
+            consumerGroup,
+            queueType,
+            (dslContext, eithers) -> consumer.accept(eithers),
+            false,
+            true,
+            null
         );
     }
 
     public Runnable receiveTransaction(String consumerGroup, Class<?> queueType, BiConsumer<DSLContext, List<Either<T, DeserializationException>>> consumer) {
+        return this.receiveTransaction(consumerGroup, queueType, null, consumer);
+    }
+
+    /**
+     * Receive in the fetching transaction, fetching at most the number of messages given by the capacity, nothing is fetched while it's 0.
+     */
+    public Runnable receiveTransaction(String consumerGroup, Class<?> queueType, IntSupplier capacity, BiConsumer<DSLContext, List<Either<T, DeserializationException>>> consumer) {
         return this.receiveImpl(
             consumerGroup,
             queueType,
             consumer,
             true,
-            true
+            true,
+            capacity
         );
     }
 
@@ -241,15 +411,19 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         Class<?> queueType,
         BiConsumer<DSLContext, List<Either<T, DeserializationException>>> consumer,
         Boolean inTransaction,
-        boolean forUpdate
+        boolean forUpdate,
+        IntSupplier capacity
     ) {
         String queueName = queueName(queueType);
+        ConsumerMetrics metrics = new ConsumerMetrics(consumerGroup, queueName);
+
+        return this.poll(metrics, capacity, pollSize -> {
+            long start = System.nanoTime();
 
-        return this.poll(() -> {
             Result<Record> fetch = dslContextWrapper.transactionResult(configuration -> {
                 DSLContext ctx = DSL.using(configuration);
 
-                Result<Record> result = this.receiveFetch(ctx, consumerGroup, queueName, forUpdate);
+                Result<Record> result = this.receiveFetch(ctx, consumerGroup, queueName, pollSize, forUpdate);
 
                 if (!result.isEmpty()) {
                     if (inTransaction) {
@@ -271,10 +445,25 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
                 consumer.accept(null, this.map(fetch));
             }
 
+            metrics.dispatched(fetch.size(), start);
+            metrics.reportLag();
+
             return fetch.size();
         });
     }
 
+    /**
+     * The condition matching the messages of this queue type.
+     */
+    protected Condition typeCondition() {
+        return AbstractJdbcRepository.field("type").eq(this.cls.getName());
+    }
+
+    /**
+     * The condition matching the messages not consumed yet by the given queue type.
+     */
+    abstract protected Condition unconsumedCondition(String queueType);
+
     protected String queueName(Class<?> queueType) {
         return CaseFormat.UPPER_CAMEL.to(
             CaseFormat.LOWER_UNDERSCORE,
@@ -282,39 +471,86 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         );
     }
 
-    @SuppressWarnings("BusyWait")
-    protected Runnable poll(Supplier<Integer> runnable) {
+    /**
+     * Poll in a loop, the runnable receives the number of messages to fetch and returns the number fetched.
+     * When a capacity is given, the number of messages to fetch is capped by it.
+     */
+    private Runnable poll(ConsumerMetrics metrics, IntSupplier capacity, Function<Integer, Integer> runnable) {
         AtomicBoolean running = new AtomicBoolean(true);
-        AtomicLong sleep = new AtomicLong(configuration.getMaxPollInterval().toMillis());
-        AtomicReference<ZonedDateTime> lastPoll = new AtomicReference<>(ZonedDateTime.now());
+        JdbcQueuePollController controller = new JdbcQueuePollController(configuration);
+        metrics.register(controller);
 
         poolExecutor.execute(() -> {
-            while (running.get() && !this.isClosed.get()) {
-                try {
-                    Integer count = runnable.get();
-                    if (count > 0) {
-                        lastPoll.set(ZonedDateTime.now());
-                    }
+            try {
+                this.pollLoop(running, controller, capacity, runnable);
+            } finally {
+                metrics.unregister(controller);
+            }
+        });
 
-                    sleep.set(lastPoll.get().plus(configuration.getPollSwitchInterval()).compareTo(ZonedDateTime.now()) < 0 ?
-                        configuration.getMaxPollInterval().toMillis() :
-                        configuration.getMinPollInterval().toMillis()
-                    );
-                } catch (CannotCreateTransactionException e) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Can't poll on receive", e);
-                    }
-                }
+        return () -> running.set(false);
+    }
 
+    private void pollLoop(AtomicBoolean running, JdbcQueuePollController controller, IntSupplier capacity, Function<Integer, Integer> runnable) {
+        while (running.get() && !this.isClosed.get()) {
+            // captured before fetching so that a message produced during the fetch wakes up the next wait
+            long version = this.notificationVersion();
+
+            int available = capacity == null ? Integer.MAX_VALUE : capacity.getAsInt();
+            if (available <= 0) {
+                // the consumer is full, check again soon without backing off as the messages are still waiting
                 try {
-                    Thread.sleep(sleep.get());
+                    Thread.sleep(configuration.getMinPollInterval().toMillis());
                 } catch (InterruptedException e) {
                     throw new RuntimeException(e);
                 }
+
+                continue;
             }
-        });
 
-        return () -> running.set(false);
+            try {
+                controller.fetched(runnable.apply(Math.min(controller.pollSize(), available)));
+            } catch (CannotCreateTransactionException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Can't poll on receive", e);
+                }
+
+                controller.fetched(0);
+            }
+
+            // the last fetch was full, more messages are waiting
+            if (controller.pollInterval() == 0) {
+                continue;
+            }
+
+            try {
+                this.awaitMessages(version, controller.pollInterval());
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Called inside the producing transaction once the message is inserted,
+     * queues supporting push notifications can override it to wake up the consumers.
+     */
+    protected void notifyConsumers(DSLContext context) {
+    }
+
+    /**
+     * The current version of the notification signal, a plain polling queue doesn't have any.
+     */
+    protected long notificationVersion() {
+        return 0L;
+    }
+
+    /**
+     * Wait before the next poll, queues supporting push notifications can return as soon as
+     * a message is produced after the given version.
+     */
+    protected void awaitMessages(long version, long sleep) throws InterruptedException {
+        Thread.sleep(sleep);
     }
 
     protected List<Either<T, DeserializationException>> map(Result<Record> fetch) {
@@ -334,6 +570,106 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
     }
 
 
+    /**
+     * Fetch size, poll to dispatch duration and lag of a consumer.
+     * The lag is computed by the polling thread itself at most once per {@link Configuration#lagInterval}.
+     */
+    private class ConsumerMetrics {
+        private final String consumerGroup;
+        private final String queueName;
+        private final DistributionSummary fetchSize;
+        private final Timer dispatchDuration;
+        private final AtomicLong lagCount;
+        private final AtomicLong lagAge;
+        private final Set<JdbcQueuePollController> pollSizes;
+        private final Set<JdbcQueuePollController> pollIntervals;
+        private long lastLagReport = 0;
+
+        private ConsumerMetrics(String consumerGroup, String queueName) {
+            this.consumerGroup = consumerGroup;
+            this.queueName = queueName;
+
+            String[] tags = new String[]{"type", JdbcQueue.this.cls.getName(), "consumer", queueName == null ? "none" : queueName};
+            if (consumerGroup != null) {
+                tags = ArrayUtils.addAll(tags, "consumer_group", consumerGroup);
+            }
+
+            this.fetchSize = metricRegistry.summary(MetricRegistry.METRIC_QUEUE_FETCH_SIZE, tags);
+            this.dispatchDuration = metricRegistry.timer(MetricRegistry.METRIC_QUEUE_DISPATCH_DURATION, tags);
+
+            // broadcast consumers don't flag the messages they consumed, so there is no lag to compute
+            boolean lag = queueName != null && configuration.getLagInterval() != null;
+            // the consumers with the same tags, like the ones of several executors in the same JVM, share the lag of their queue type and group
+            this.lagCount = lag ? metricRegistry.sharedGauge(MetricRegistry.METRIC_QUEUE_LAG_COUNT, AtomicLong::new, AtomicLong::get, tags) : null;
+            this.lagAge = lag ? metricRegistry.sharedGauge(MetricRegistry.METRIC_QUEUE_LAG_AGE, AtomicLong::new, AtomicLong::get, tags) : null;
+
+            // the poll gauges report the mean of the consumers with the same tags still polling
+            this.pollSizes = metricRegistry.sharedGauge(
+                MetricRegistry.METRIC_QUEUE_POLL_SIZE,
+                ConcurrentHashMap::newKeySet,
+                controllers -> mean(controllers, controller -> controller.pollSizeGauge().get()),
+                tags
+            );
+            this.pollIntervals = metricRegistry.sharedGauge(
+                MetricRegistry.METRIC_QUEUE_POLL_INTERVAL,
+                ConcurrentHashMap::newKeySet,
+                controllers -> mean(controllers, controller -> controller.pollIntervalGauge().get()),
+                tags
+            );
+        }
+
+        private void register(JdbcQueuePollController controller) {
+            this.pollSizes.add(controller);
+            this.pollIntervals.add(controller);
+        }
+
+        private void unregister(JdbcQueuePollController controller) {
+            this.pollSizes.remove(controller);
+            this.pollIntervals.remove(controller);
+        }
+
+        private static double mean(Set<JdbcQueuePollController> controllers, ToDoubleFunction<JdbcQueuePollController> value) {
+            return controllers.stream().mapToDouble(value).average().orElse(Double.NaN);
+        }
+
+        private void dispatched(int size, long start) {
+            this.fetchSize.record(size);
+
+            if (size > 0) {
+                this.dispatchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void reportLag() {
+            if (this.lagCount == null || System.nanoTime() - this.lastLagReport < configuration.getLagInterval().toNanos()) {
+                return;
+            }
+
+            this.lastLagReport = System.nanoTime();
+
+            var condition = typeCondition()
+                .and(unconsumedCondition(this.queueName))
+                .and(this.consumerGroup != null ?
+                    AbstractJdbcRepository.field("consumer_group").eq(this.consumerGroup) :
+                    AbstractJdbcRepository.field("consumer_group").isNull()
+                );
+
+            Record2<Integer, Timestamp> lag = dslContextWrapper.transactionResult(configuration -> DSL
+                .using(configuration)
+                .select(
+                    DSL.count(),
+                    DSL.min(DSL.field(DSL.quotedName("created"), Timestamp.class))
+                )
+                .from(table)
+                .where(condition)
+                .fetchOne()
+            );
+
+            this.lagCount.set(lag.value1());
+            this.lagAge.set(lag.value2() == null ? 0 : Math.max(0, Instant.now().toEpochMilli() - lag.value2().getTime()));
+        }
+    }
+
     @Override
     public void close() throws IOException {
         if (!this.isClosed.compareAndSet(false, true)) {
@@ -348,7 +684,16 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
     public static class Configuration {
         Duration minPollInterval = Duration.ofMillis(100);
         Duration maxPollInterval = Duration.ofMillis(500);
-        Duration pollSwitchInterval = Duration.ofSeconds(30);
+        // wait growth factor between two empty polls, from minPollInterval to maxPollInterval
+        Double pollBackoffMultiplier = 2.0;
         Integer pollSize = 100;
+        // the batch size grows up to this value while fetches come back full
+        Integer maxPollSize = 1000;
+
+        // how often consumers compute their lag, null to disable
+        Duration lagInterval = Duration.ofSeconds(30);
+
+        // max rows of one insert when emitting a list of messages
+        Integer insertBatchSize = 100;
     }
 }
@@ -0,0 +1,230 @@
+package io.kestra.jdbc.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.jdbc.JdbcMapper;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encode queue messages in a compact binary payload.
+ * <p>
+ * Each payload starts with a header of three bytes: the payload version, the format and the compression,
+ * so any node can decode messages produced with another configuration.
+ * The JSON format keeps the legacy text column and is the default:
+ * only enable a binary format once all the nodes of the cluster are able to decode it.
+ */
+@Singleton
+public class JdbcQueueCodec {
+    public static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 3;
+
+    private final Configuration configuration;
+    private final MetricRegistry metricRegistry;
+    private final AtomicLong encodedCount = new AtomicLong();
+
+    @Inject
+    public JdbcQueueCodec(Configuration configuration, MetricRegistry metricRegistry) {
+        this.configuration = configuration;
+        this.metricRegistry = metricRegistry;
+    }
+
+    public boolean isBinary() {
+        return this.configuration.getFormat() != Format.JSON;
+    }
+
+    public byte[] encode(Object message) throws IOException {
+        Format format = this.configuration.getFormat();
+        byte[] payload = format.mapper().writeValueAsBytes(message);
+
+        Compression compression = payload.length >= this.configuration.getCompressionThreshold() ?
+            this.configuration.getCompression() :
+            Compression.NONE;
+
+        if (compression == Compression.DEFLATE) {
+            payload = deflate(payload);
+        }
+
+        byte[] bytes = new byte[HEADER_SIZE + payload.length];
+        bytes[0] = VERSION;
+        bytes[1] = format.id;
+        bytes[2] = compression.id;
+        System.arraycopy(payload, 0, bytes, HEADER_SIZE, payload.length);
+
+        this.recordSize(message, bytes.length);
+
+        return bytes;
+    }
+
+    public <T> T decode(byte[] bytes, Class<T> cls) throws IOException {
+        if (bytes.length < HEADER_SIZE) {
+            throw new IOException("Invalid queue payload of size " + bytes.length);
+        }
+
+        if (bytes[0] != VERSION) {
+            throw new IOException("Unsupported queue payload version " + bytes[0]);
+        }
+
+        byte[] payload = Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+
+        if (Compression.of(bytes[2]) == Compression.DEFLATE) {
+            payload = inflate(payload);
+        }
+
+        return Format.of(bytes[1]).mapper().readValue(payload, cls);
+    }
+
+    /**
+     * Convert a binary payload to its JSON representation, used to report messages that can't be deserialized.
+     */
+    public String toJson(byte[] bytes) {
+        try {
+            byte[] payload = Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+
+            if (Compression.of(bytes[2]) == Compression.DEFLATE) {
+                payload = inflate(payload);
+            }
+
+            return JdbcMapper.of().writeValueAsString(Format.of(bytes[1]).mapper().readTree(payload));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void recordSize(Object message, int encodedSize) {
+        String type = message.getClass().getName();
+
+        this.metricRegistry
+            .summary(MetricRegistry.METRIC_QUEUE_PAYLOAD_ENCODED_SIZE, "type", type)
+            .record(encodedSize);
+
+        // serializing to JSON is expensive, we only sample it to compare the sizes
+        int sampleRate = this.configuration.getSizeSampleRate();
+        if (sampleRate > 0 && this.encodedCount.getAndIncrement() % sampleRate == 0) {
+            try {
+                this.metricRegistry
+                    .summary(MetricRegistry.METRIC_QUEUE_PAYLOAD_JSON_SIZE, "type", type)
+                    .record(JdbcMapper.of().writeValueAsBytes(message).length);
+            } catch (IOException ignored) {
+                // the size is only informative
+            }
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                output.write(buffer, 0, count);
+            }
+
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length * 2);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && inflater.needsInput()) {
+                    throw new IOException("Truncated compressed queue payload");
+                }
+                output.write(buffer, 0, count);
+            }
+
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed queue payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public enum Format {
+        JSON((byte) 0),
+        SMILE((byte) 1),
+        CBOR((byte) 2);
+
+        private final byte id;
+
+        Format(byte id) {
+            this.id = id;
+        }
+
+        ObjectMapper mapper() {
+            return switch (this) {
+                case JSON -> JdbcMapper.of();
+                case SMILE -> JdbcMapper.ofSmile();
+                case CBOR -> JdbcMapper.ofCbor();
+            };
+        }
+
+        static Format of(byte id) throws IOException {
+            for (Format format : values()) {
+                if (format.id == id) {
+                    return format;
+                }
+            }
+
+            throw new IOException("Unsupported queue payload format " + id);
+        }
+    }
+
+    public enum Compression {
+        NONE((byte) 0),
+        DEFLATE((byte) 1);
+
+        private final byte id;
+
+        Compression(byte id) {
+            this.id = id;
+        }
+
+        static Compression of(byte id) throws IOException {
+            for (Compression compression : values()) {
+                if (compression.id == id) {
+                    return compression;
+                }
+            }
+
+            throw new IOException("Unsupported queue payload compression " + id);
+        }
+    }
+
+    @ConfigurationProperties("kestra.jdbc.queues.codec")
+    @Getter
+    public static class Configuration {
+        Format format = Format.JSON;
+
+        Compression compression = Compression.NONE;
+
+        // smaller payloads are not worth compressing
+        Integer compressionThreshold = 1024;
+
+        // record the equivalent JSON size of one message out of N, 0 to disable
+        Integer sizeSampleRate = 100;
+    }
+}
@@ -10,7 +10,10 @@ import org.jooq.DSLContext;
 import org.jooq.exception.DataAccessException;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -61,6 +64,37 @@ public class JdbcQueueIndexer {
         }
     }
 
+    /**
+     * Index the items of a batched emit inside the caller transaction, with one batched save per item class.
+     */
+    public void accept(DSLContext context, List<?> items) {
+        Map<Class<?>, List<Object>> byClass = new LinkedHashMap<>();
+        items.stream()
+            .filter(item -> repositories.containsKey(item.getClass()))
+            .forEach(item -> byClass.computeIfAbsent(item.getClass(), k -> new ArrayList<>()).add(item));
+
+        byClass.forEach((cls, messages) -> {
+            this.metricRegistry.counter(MetricRegistry.METRIC_INDEXER_REQUEST_COUNT, "type", cls.getName()).increment();
+            this.metricRegistry.counter(MetricRegistry.METRIC_INDEXER_MESSAGE_IN_COUNT, "type", cls.getName()).increment(messages.size());
+
+            this.metricRegistry.timer(MetricRegistry.METRIC_INDEXER_REQUEST_DURATION, "type", cls.getName()).record(() -> {
+                JdbcIndexerInterface<?> jdbcIndexerInterface = repositories.get(cls);
+                if (jdbcIndexerInterface instanceof FlowTopologyRepositoryInterface) {
+                    // we allow flow topology to fail indexation
+                    try {
+                        jdbcIndexerInterface.saveAll(context, cast(messages));
+                    } catch (DataAccessException e) {
+                        log.error("Unable to index {} flow topologies, skipping them", messages.size(), e);
+                    }
+                } else {
+                    jdbcIndexerInterface.saveAll(context, cast(messages));
+                }
+
+                this.metricRegistry.counter(MetricRegistry.METRIC_INDEXER_MESSAGE_OUT_COUNT, "type", cls.getName()).increment(messages.size());
+            });
+        });
+    }
+
     @SuppressWarnings("unchecked")
     protected static <T> T cast(Object message) {
         return (T) message;
@@ -0,0 +1,82 @@
+package io.kestra.jdbc.runner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adapt the batch size and the wait between two polls of a consumer to the number of messages fetched.
+ * <p>
+ * While fetches come back full, the batch size grows up to {@link JdbcQueue.Configuration#maxPollSize}
+ * and the next poll is done immediately. When they come back empty, the wait grows exponentially
+ * from {@link JdbcQueue.Configuration#minPollInterval} to {@link JdbcQueue.Configuration#maxPollInterval}
+ * and the batch size shrinks back to {@link JdbcQueue.Configuration#pollSize}.
+ */
+public class JdbcQueuePollController {
+    private final int minPollSize;
+    private final int maxPollSize;
+    private final long minPollInterval;
+    private final long maxPollInterval;
+    private final double backoffMultiplier;
+
+    private final AtomicInteger pollSize;
+    private final AtomicLong pollInterval;
+
+    public JdbcQueuePollController(JdbcQueue.Configuration configuration) {
+        this.minPollSize = configuration.getPollSize();
+        this.maxPollSize = Math.max(configuration.getPollSize(), configuration.getMaxPollSize());
+        this.minPollInterval = configuration.getMinPollInterval().toMillis();
+        this.maxPollInterval = Math.max(this.minPollInterval, configuration.getMaxPollInterval().toMillis());
+        this.backoffMultiplier = Math.max(1.0, configuration.getPollBackoffMultiplier());
+
+        this.pollSize = new AtomicInteger(this.minPollSize);
+        this.pollInterval = new AtomicLong(this.minPollInterval);
+    }
+
+    /**
+     * The number of messages to fetch on the next poll.
+     */
+    public int pollSize() {
+        return this.pollSize.get();
+    }
+
+    /**
+     * The time to wait in milliseconds before the next poll, 0 to poll again immediately.
+     */
+    public long pollInterval() {
+        return this.pollInterval.get();
+    }
+
+    /**
+     * The gauge values, updated in place so they can be registered once.
+     */
+    AtomicInteger pollSizeGauge() {
+        return this.pollSize;
+    }
+
+    AtomicLong pollIntervalGauge() {
+        return this.pollInterval;
+    }
+
+    public void fetched(int count) {
+        int size = this.pollSize.get();
+
+        if (count >= size) {
+            // there are probably more messages waiting
+            this.pollSize.set(Math.min(this.maxPollSize, size * 2));
+            this.pollInterval.set(0);
+        } else if (count > 0) {
+            if (count < size / 4) {
+                this.pollSize.set(Math.max(this.minPollSize, size / 2));
+            }
+            this.pollInterval.set(this.minPollInterval);
+        } else {
+            this.pollSize.set(Math.max(this.minPollSize, size / 2));
+
+            long interval = this.pollInterval.get();
+            this.pollInterval.set(interval == 0 ?
+                Math.max(1, this.minPollInterval) :
+                Math.min(this.maxPollInterval, (long) Math.ceil(interval * this.backoffMultiplier))
+            );
+        }
+    }
+}
@@ -5,11 +5,13 @@ import io.kestra.core.models.executions.LogEntry;
 import io.kestra.core.models.triggers.multipleflows.MultipleConditionWindow;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 
 class JdbcMapperTest {
     @Test
@@ -41,4 +43,18 @@ class JdbcMapperTest {
 
         assertThat(serialize, containsString("2013-09-08T16:19:12.001+02:00"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void smile() throws IOException {
+        LogEntry logEntry = LogEntry.builder()
+            .timestamp(Instant.parse("2019-10-06T18:27:49.000Z"))
+            .message("binary")
+            .build();
+
+        byte[] bytes = JdbcMapper.ofSmile().writeValueAsBytes(logEntry);
+        LogEntry deserialize = JdbcMapper.ofSmile().readValue(bytes, LogEntry.class);
+
+        assertThat(deserialize.getTimestamp(), is(logEntry.getTimestamp()));
+        assertThat(deserialize.getMessage(), is("binary"));
+    }
+}
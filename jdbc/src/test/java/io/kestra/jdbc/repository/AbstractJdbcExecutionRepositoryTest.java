@@ -1,11 +1,21 @@
 package io.kestra.jdbc.repository;
 
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.runners.Executor;
 import io.kestra.jdbc.JdbcTestUtils;
 import jakarta.inject.Inject;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 public abstract class AbstractJdbcExecutionRepositoryTest extends io.kestra.core.repositories.AbstractExecutionRepositoryTest {
     @Inject
@@ -16,4 +26,35 @@ public abstract class AbstractJdbcExecutionRepositoryTest extends io.kestra.core
         jdbcTestUtils.drop();
         jdbcTestUtils.migrate();
     }
-}
\ No newline at end of file
+
+    @Test
+    void lockWithConcurrentUpdate() {
+        AbstractJdbcExecutionRepository repository = (AbstractJdbcExecutionRepository) executionRepository;
+        Execution execution = builder(State.Type.RUNNING, null).build();
+        executionRepository.save(execution);
+
+        List<State.Type> states = new CopyOnWriteArrayList<>();
+
+        // read from the database, then from the cache
+        repository.lock(execution.getId(), pair -> {
+            states.add(pair.getLeft().getState().getCurrent());
+            return Pair.of(new Executor(pair.getLeft().withState(State.Type.PAUSED), null), pair.getRight());
+        });
+        repository.lock(execution.getId(), pair -> {
+            states.add(pair.getLeft().getState().getCurrent());
+            return Pair.of(new Executor(pair.getLeft().withState(State.Type.RUNNING), null), pair.getRight());
+        });
+        assertThat(executionRepository.findById(null, execution.getId()).orElseThrow().getState().getCurrent(), is(State.Type.RUNNING));
+
+        // updated outside the executor, the cached execution is outdated and read again from the database,
+        // the function is only applied to the current execution as it can have side effects
+        executionRepository.update(executionRepository.findById(null, execution.getId()).orElseThrow().withState(State.Type.KILLING));
+        repository.lock(execution.getId(), pair -> {
+            states.add(pair.getLeft().getState().getCurrent());
+            return Pair.of(new Executor(pair.getLeft().withState(State.Type.KILLED), null), pair.getRight());
+        });
+
+        assertThat(states, is(List.of(State.Type.RUNNING, State.Type.PAUSED, State.Type.KILLING)));
+        assertThat(executionRepository.findById(null, execution.getId()).orElseThrow().getState().getCurrent(), is(State.Type.KILLED));
+    }
+}
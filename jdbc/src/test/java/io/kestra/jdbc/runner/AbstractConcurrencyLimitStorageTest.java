@@ -0,0 +1,89 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.ConcurrencyLimit;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.jdbc.JdbcTestUtils;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+public abstract class AbstractConcurrencyLimitStorageTest {
+    private static final String NAMESPACE = "io.kestra.tests";
+
+    @Inject
+    AbstractJdbcConcurrencyLimitStorage concurrencyLimitStorage;
+
+    @Inject
+    JdbcTestUtils jdbcTestUtils;
+
+    @Test
+    void reserve() throws InterruptedException, ExecutionException {
+        String flowId = IdUtils.create();
+
+        // only the limit is admitted when the executions of the flow are created at the same time
+        ExecutorService executorService = Executors.newFixedThreadPool(10);
+        List<Callable<Boolean>> reservations = IntStream.range(0, 10)
+            .<Callable<Boolean>>mapToObj(i -> () -> concurrencyLimitStorage.reserve(null, NAMESPACE, flowId, 2))
+            .toList();
+
+        int reserved = 0;
+        for (Future<Boolean> future : executorService.invokeAll(reservations)) {
+            reserved += future.get() ? 1 : 0;
+        }
+        executorService.shutdown();
+
+        assertThat(reserved, is(2));
+        assertThat(this.running(flowId), is(2));
+
+        concurrencyLimitStorage.increment(null, NAMESPACE, flowId, -1);
+        assertThat(concurrencyLimitStorage.reserve(null, NAMESPACE, flowId, 2), is(true));
+        assertThat(concurrencyLimitStorage.reserve(null, NAMESPACE, flowId, 2), is(false));
+
+        // never below zero
+        concurrencyLimitStorage.increment(null, NAMESPACE, flowId, -5);
+        assertThat(this.running(flowId), is(0));
+    }
+
+    @Test
+    void reconcile() {
+        String flowId = IdUtils.create();
+        concurrencyLimitStorage.increment(null, NAMESPACE, flowId, 3);
+
+        // changed since it was read
+        assertThat(concurrencyLimitStorage.reconcile(null, NAMESPACE, flowId, 2, 1), is(false));
+        assertThat(this.running(flowId), is(3));
+
+        assertThat(concurrencyLimitStorage.reconcile(null, NAMESPACE, flowId, 3, 1), is(true));
+        assertThat(this.running(flowId), is(1));
+
+        // created on first use
+        String other = IdUtils.create();
+        assertThat(concurrencyLimitStorage.reconcile(null, NAMESPACE, other, 0, 2), is(true));
+        assertThat(this.running(other), is(2));
+    }
+
+    private int running(String flowId) {
+        return concurrencyLimitStorage.findById(null, NAMESPACE, flowId)
+            .map(ConcurrencyLimit::getRunning)
+            .orElseThrow();
+    }
+
+    @BeforeEach
+    protected void init() {
+        jdbcTestUtils.drop();
+        jdbcTestUtils.migrate();
+    }
+}
@@ -0,0 +1,29 @@
+package io.kestra.jdbc.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class AbstractJdbcQueuePartitioningTest {
+    @Test
+    void partition() {
+        Instant instant = Instant.parse("2024-03-05T10:15:30Z");
+
+        assertThat(AbstractJdbcQueuePartitioning.Granularity.DAILY.partition(instant), is("p20240305"));
+        assertThat(AbstractJdbcQueuePartitioning.Granularity.HOURLY.partition(instant), is("p2024030510"));
+        assertThat(AbstractJdbcQueuePartitioning.legacyPartition(instant), is("plegacy20240305101530"));
+    }
+
+    @Test
+    void upperBound() {
+        assertThat(AbstractJdbcQueuePartitioning.upperBound("p20240305"), is(Instant.parse("2024-03-06T00:00:00Z")));
+        assertThat(AbstractJdbcQueuePartitioning.upperBound("p2024030510"), is(Instant.parse("2024-03-05T11:00:00Z")));
+        assertThat(AbstractJdbcQueuePartitioning.upperBound("plegacy20240305101530"), is(Instant.parse("2024-03-05T10:15:30Z")));
+        assertThat(AbstractJdbcQueuePartitioning.upperBound("pmax"), nullValue());
+        assertThat(AbstractJdbcQueuePartitioning.upperBound("default"), nullValue());
+    }
+}
@@ -0,0 +1,83 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.models.flows.State;
+import io.kestra.core.runners.ExecutionDelay;
+import io.kestra.core.utils.IdUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+class JdbcExecutionDelayWheelTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static JdbcExecutionDelayWheel wheel() {
+        JdbcExecutionDelayWheel.Configuration configuration = new JdbcExecutionDelayWheel.Configuration();
+        configuration.tick = Duration.ofMillis(10);
+        // small levels so the delays are cascaded through all of them
+        configuration.size = 4;
+
+        return new JdbcExecutionDelayWheel(configuration, NOW);
+    }
+
+    private static ExecutionDelay delay(String executionId, Instant date) {
+        return ExecutionDelay.builder()
+            .executionId(executionId)
+            .date(date)
+            .state(State.Type.RUNNING)
+            .delayType(ExecutionDelay.DelayType.RESUME_FLOW)
+            .build();
+    }
+
+    @Test
+    void expireOnTheirTick() {
+        JdbcExecutionDelayWheel wheel = wheel();
+        List<Long> offsets = List.of(5L, 10L, 35L, 170L, 650L, 2_570L, 10_000L);
+        offsets.forEach(offset -> wheel.add(delay(String.valueOf(offset), NOW.plusMillis(offset))));
+
+        List<String> expired = new ArrayList<>();
+        for (long millis = 0; millis <= 12_000; millis += 10) {
+            Instant now = NOW.plusMillis(millis);
+            wheel.advance(now).forEach(executionDelay -> {
+                // never before their date, at most a tick after
+                assertThat(executionDelay.getDate().isAfter(now), is(false));
+                assertThat(Duration.between(executionDelay.getDate(), now).toMillis() < 10, is(true));
+                expired.add(executionDelay.getExecutionId());
+            });
+        }
+
+        assertThat(expired, is(offsets.stream().map(String::valueOf).toList()));
+        assertThat(wheel.size(), is(0));
+    }
+
+    @Test
+    void catchUp() {
+        JdbcExecutionDelayWheel wheel = wheel();
+        wheel.add(delay("past", NOW.minusSeconds(60)));
+        wheel.add(delay("soon", NOW.plusMillis(500)));
+        wheel.add(delay("later", NOW.plusSeconds(60)));
+
+        assertThat(wheel.advance(NOW).stream().map(ExecutionDelay::getExecutionId).toList(), contains("past"));
+        assertThat(wheel.advance(NOW.plusSeconds(1)).stream().map(ExecutionDelay::getExecutionId).toList(), contains("soon"));
+        assertThat(wheel.size(), is(1));
+    }
+
+    @Test
+    void replace() {
+        JdbcExecutionDelayWheel wheel = wheel();
+        String executionId = IdUtils.create();
+        wheel.add(delay(executionId, NOW.plusMillis(100)));
+        wheel.add(delay(executionId, NOW.plusMillis(300)));
+
+        assertThat(wheel.size(), is(1));
+        assertThat(wheel.advance(NOW.plusMillis(200)), empty());
+        assertThat(wheel.advance(NOW.plusMillis(300)).size(), is(1));
+    }
+}
@@ -0,0 +1,157 @@
+package io.kestra.jdbc.runner;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.kestra.core.utils.ThreadMainFactoryBuilder;
+import io.micronaut.transaction.exceptions.CannotCreateTransactionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class JdbcExecutorLanesTest {
+    private static JdbcExecutorLanes lanes(int count, int capacity) {
+        JdbcExecutorLanes.Configuration configuration = new JdbcExecutorLanes.Configuration();
+        configuration.count = count;
+        configuration.capacity = capacity;
+
+        return new JdbcExecutorLanes(configuration, new SimpleThreadFactoryBuilder(), new SimpleMetricRegistry());
+    }
+
+    @Test
+    void orderedByKey() {
+        JdbcExecutorLanes lanes = lanes(4, 1000);
+        Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+
+        List<JdbcExecutorLanes.Message> messages = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "execution-" + (i % 10);
+            int sequence = i;
+            messages.add(new JdbcExecutorLanes.Message(key, () -> processed.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(sequence)));
+        }
+
+        // returns once the whole poll is processed
+        lanes.dispatchAll(messages);
+
+        assertThat(processed.values().stream().mapToInt(List::size).sum(), is(1000));
+        processed.values().forEach(sequences -> assertThat(sequences, is(sequences.stream().sorted().toList())));
+        lanes.close(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void backpressure() throws InterruptedException {
+        JdbcExecutorLanes lanes = lanes(1, 1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+
+        // the first message holds the lane, the second one fills its queue
+        lanes.dispatch("first", () -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.incrementAndGet();
+        });
+        lanes.dispatch("second", processed::incrementAndGet);
+
+        Thread polling = new Thread(() -> lanes.dispatchAll(List.of(new JdbcExecutorLanes.Message("third", processed::incrementAndGet))));
+        polling.start();
+
+        polling.join(200);
+        assertThat(polling.isAlive(), is(true));
+
+        blocked.countDown();
+        polling.join(5000);
+        assertThat(polling.isAlive(), is(false));
+        assertThat(processed.get(), is(3));
+        lanes.close(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shutdown() throws InterruptedException {
+        JdbcExecutorLanes lanes = lanes(2, 100);
+        CountDownLatch processed = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            lanes.dispatch("execution-" + i, () -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                processed.countDown();
+            });
+        }
+
+        // the messages already dispatched are processed before closing
+        lanes.close(Duration.ofSeconds(5));
+        assertThat(processed.await(0, TimeUnit.SECONDS), is(true));
+
+        // once closed, the messages are dropped without throwing into the polling thread
+        assertThat(lanes.dispatch("execution-0", () -> {}), is(false));
+        lanes.dispatchAll(List.of(new JdbcExecutorLanes.Message("execution-0", () -> {})));
+    }
+
+    @Test
+    void failure() {
+        JdbcExecutorLanes lanes = lanes(1, 100);
+        AtomicInteger processed = new AtomicInteger();
+
+        // a database outage is logged and the lane goes on with the next ones, as in the poll loop
+        lanes.dispatchAll(List.of(
+            new JdbcExecutorLanes.Message("execution", () -> {
+                throw new CannotCreateTransactionException("unavailable");
+            }),
+            new JdbcExecutorLanes.Message("execution", processed::incrementAndGet)
+        ));
+
+        assertThat(processed.get(), is(1));
+        lanes.close(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void droppedOnClose() throws InterruptedException {
+        JdbcExecutorLanes lanes = lanes(1, 100);
+        CountDownLatch blocked = new CountDownLatch(1);
+
+        // the first message holds the lane past the close timeout, the second one is still queued
+        Thread polling = new Thread(() -> lanes.dispatchAll(List.of(
+            new JdbcExecutorLanes.Message("execution", () -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }),
+            new JdbcExecutorLanes.Message("execution", () -> {})
+        )));
+        polling.start();
+        Thread.sleep(100);
+
+        // the queued message is dropped and the running one interrupted, the poll doesn't wait for them forever
+        lanes.close(Duration.ofMillis(100));
+        polling.join(5000);
+        assertThat(polling.isAlive(), is(false));
+    }
+
+    /**
+     * Named threads without the uncaught exception handler of the application context.
+     */
+    private static class SimpleThreadFactoryBuilder extends ThreadMainFactoryBuilder {
+        @Override
+        public ThreadFactory build(String name) {
+            return new ThreadFactoryBuilder().setNameFormat(name).build();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.kestra.jdbc.runner;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.utils.IdUtils;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+class JdbcExecutorStagesTest {
+    @Test
+    void maxFlows() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JdbcExecutorStages.Configuration configuration = new JdbcExecutorStages.Configuration();
+        configuration.maxFlows = 2;
+        JdbcExecutorStages stages = new JdbcExecutorStages(configuration, new SimpleMetricRegistry(meterRegistry));
+
+        for (String flowId : new String[]{"first", "second", "third", "fourth", "first"}) {
+            stages.start(execution(flowId)).end();
+        }
+
+        // the flows after the max share the same timers
+        assertThat(
+            meterRegistry.getMeters().stream().map(meter -> meter.getId().getTag(MetricRegistry.TAG_FLOW_ID)).distinct().toList(),
+            containsInAnyOrder("first", "second", JdbcExecutorStages.OTHER)
+        );
+        assertThat(timer(meterRegistry, "first").count(), is(2L));
+        assertThat(timer(meterRegistry, JdbcExecutorStages.OTHER).count(), is(2L));
+    }
+
+    @Test
+    void slowStep() {
+        JdbcExecutorStages.Configuration configuration = new JdbcExecutorStages.Configuration();
+        configuration.slowThreshold = Duration.ofMillis(10);
+        JdbcExecutorStages stages = new JdbcExecutorStages(configuration, new SimpleMetricRegistry());
+
+        Logger logger = (Logger) LoggerFactory.getLogger(JdbcExecutorStages.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        try {
+            stages.start(execution("fast")).end();
+            assertThat(appender.list.size(), is(0));
+
+            JdbcExecutorStages.Step step = stages.start(execution("slow"));
+            step.enter(JdbcExecutorStages.Stage.PROCESS);
+            Thread.sleep(20);
+            step.enter(JdbcExecutorStages.Stage.EMIT);
+            step.end();
+
+            assertThat(appender.list.size(), is(1));
+            assertThat(appender.list.getFirst().getFormattedMessage(), containsString("flow 'io.kestra.tests.slow'"));
+            assertThat(appender.list.getFirst().getFormattedMessage(), containsString("process="));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    private static Timer timer(SimpleMeterRegistry meterRegistry, String flowId) {
+        return meterRegistry.find(MetricRegistry.EXECUTOR_STAGE_DURATION)
+            .tags(MetricRegistry.TAG_FLOW_ID, flowId, MetricRegistry.TAG_STAGE, "lock")
+            .timer();
+    }
+
+    private static Execution execution(String flowId) {
+        return Execution.builder()
+            .id(IdUtils.create())
+            .namespace("io.kestra.tests")
+            .flowId(flowId)
+            .build();
+    }
+}
@@ -0,0 +1,121 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.runners.Indexer;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.jdbc.JdbcTestUtils;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import io.kestra.plugin.core.debug.Return;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+abstract public class JdbcQueuePartitioningTest {
+    @Inject
+    @Named(QueueFactoryInterface.FLOW_NAMED)
+    protected QueueInterface<Flow> flowQueue;
+
+    @Inject
+    JdbcTestUtils jdbcTestUtils;
+
+    @Inject
+    protected JooqDSLContextWrapper dslContextWrapper;
+
+    @Inject
+    protected AbstractJdbcQueuePartitioning queuePartitioning;
+
+    @Test
+    void maintainPopulatedTable() throws InterruptedException, QueueException {
+        flowQueue.emit(builder("io.kestra.f1"));
+        flowQueue.emit(builder("io.kestra.f2"));
+
+        // rows created by a database clock ahead of the application one
+        OffsetDateTime created = OffsetDateTime.now().plusHours(1);
+        dslContextWrapper.transaction(configuration -> DSL.using(configuration)
+            .update(DSL.table(DSL.name("queues")))
+            .set(DSL.field(DSL.name("created")), created)
+            .execute()
+        );
+
+        queuePartitioning.maintain(AbstractJdbcQueuePartitioning.Granularity.HOURLY, 2, Duration.ofDays(7));
+
+        List<String> partitions = this.partitions();
+        String legacy = partitions.stream().filter(partition -> partition.startsWith(AbstractJdbcQueuePartitioning.LEGACY_PREFIX)).findFirst().orElseThrow();
+        assertThat(AbstractJdbcQueuePartitioning.upperBound(legacy).isAfter(created.toInstant()), is(true));
+
+        // already converted, only the missing partitions are created
+        queuePartitioning.maintain(AbstractJdbcQueuePartitioning.Granularity.HOURLY, 2, Duration.ofDays(7));
+        assertThat(this.partitions(), containsInAnyOrder(partitions.toArray()));
+
+        flowQueue.emit(builder("io.kestra.f3"));
+
+        List<String> namespaces = new CopyOnWriteArrayList<>();
+        CountDownLatch countDownLatch = new CountDownLatch(3);
+        Flux<Flow> receive = TestsUtils.receive(flowQueue, Indexer.class, either -> {
+            namespaces.add(either.getLeft().getNamespace());
+            countDownLatch.countDown();
+        });
+
+        countDownLatch.await(5, TimeUnit.SECONDS);
+        receive.blockLast();
+
+        assertThat(namespaces, containsInAnyOrder("io.kestra.f1", "io.kestra.f2", "io.kestra.f3"));
+    }
+
+    private List<String> partitions() {
+        return dslContextWrapper.transactionResult(configuration -> queuePartitioning.partitions(DSL.using(configuration)));
+    }
+
+    /**
+     * Restore the queues table as created by the migrations, for the other tests.
+     */
+    protected abstract void unpartition(DSLContext context);
+
+    private static Flow builder(String namespace) {
+        return Flow.builder()
+            .id(IdUtils.create())
+            .namespace(namespace)
+            .tasks(Collections.singletonList(Return.builder().id("test").type(Return.class.getName()).format("test").build()))
+            .build();
+    }
+
+    @BeforeEach
+    protected void init() {
+        jdbcTestUtils.drop();
+        jdbcTestUtils.migrate();
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        dslContextWrapper.transaction(configuration -> {
+            DSLContext context = DSL.using(configuration);
+
+            if (queuePartitioning.isPartitioned(context)) {
+                this.unpartition(context);
+            }
+        });
+    }
+}
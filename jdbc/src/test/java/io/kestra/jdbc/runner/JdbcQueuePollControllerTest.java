@@ -0,0 +1,55 @@
+package io.kestra.jdbc.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class JdbcQueuePollControllerTest {
+    private static JdbcQueuePollController controller() {
+        JdbcQueue.Configuration configuration = new JdbcQueue.Configuration();
+        configuration.minPollInterval = Duration.ofMillis(10);
+        configuration.maxPollInterval = Duration.ofMillis(100);
+        configuration.pollSize = 10;
+        configuration.maxPollSize = 40;
+
+        return new JdbcQueuePollController(configuration);
+    }
+
+    @Test
+    void growWhileFull() {
+        JdbcQueuePollController controller = controller();
+
+        controller.fetched(10);
+        assertThat(controller.pollSize(), is(20));
+        assertThat(controller.pollInterval(), is(0L));
+
+        controller.fetched(20);
+        controller.fetched(40);
+        assertThat(controller.pollSize(), is(40));
+        assertThat(controller.pollInterval(), is(0L));
+    }
+
+    @Test
+    void backoffWhileEmpty() {
+        JdbcQueuePollController controller = controller();
+
+        controller.fetched(10);
+        controller.fetched(0);
+        assertThat(controller.pollSize(), is(10));
+        assertThat(controller.pollInterval(), is(10L));
+
+        controller.fetched(0);
+        controller.fetched(0);
+        assertThat(controller.pollInterval(), is(40L));
+
+        controller.fetched(0);
+        controller.fetched(0);
+        assertThat(controller.pollInterval(), is(100L));
+
+        controller.fetched(5);
+        assertThat(controller.pollInterval(), is(10L));
+    }
+}
@@ -17,8 +17,12 @@ import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static io.kestra.core.utils.Rethrow.throwConsumer;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -33,6 +37,9 @@ abstract public class JdbcQueueTest {
     @Inject
     JdbcTestUtils jdbcTestUtils;
 
+    @Inject
+    JdbcQueue.Configuration queueConfiguration;
+
     @Test
     void noGroup() throws InterruptedException, QueueException {
         CountDownLatch countDownLatch = new CountDownLatch(2);
@@ -127,6 +134,69 @@ abstract public class JdbcQueueTest {
         assertThat(receive.blockLast().getNamespace(), is("io.kestra.f2"));
     }
 
+    @Test
+    void emitList() throws InterruptedException, QueueException {
+        CountDownLatch countDownLatch = new CountDownLatch(3);
+
+        Flux<Flow> receive = TestsUtils.receive(flowQueue, "consumer_group", Indexer.class, either -> {
+            countDownLatch.countDown();
+        });
+
+        flowQueue.emit("consumer_group", List.of(builder("io.kestra.f1"), builder("io.kestra.f2"), builder("io.kestra.f3")));
+
+        countDownLatch.await(5, TimeUnit.SECONDS);
+
+        assertThat(countDownLatch.getCount(), is(0L));
+        assertThat(receive.blockLast().getNamespace(), is("io.kestra.f3"));
+    }
+
+    @Test
+    void emitListInChunks() throws InterruptedException, QueueException {
+        // more messages than the rows of one insert
+        int count = queueConfiguration.getInsertBatchSize() * 2 + 1;
+        List<String> namespaces = new CopyOnWriteArrayList<>();
+        CountDownLatch countDownLatch = new CountDownLatch(count);
+
+        Flux<Flow> receive = TestsUtils.receive(flowQueue, "consumer_group", Indexer.class, either -> {
+            namespaces.add(either.getLeft().getNamespace());
+            countDownLatch.countDown();
+        });
+
+        flowQueue.emit("consumer_group", IntStream.range(0, count).mapToObj(i -> builder("io.kestra.f" + i)).toList());
+
+        countDownLatch.await(10, TimeUnit.SECONDS);
+
+        assertThat(countDownLatch.getCount(), is(0L));
+        assertThat(namespaces, is(IntStream.range(0, count).mapToObj(i -> "io.kestra.f" + i).toList()));
+        receive.blockLast();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void receiveWithCapacity() throws InterruptedException, QueueException {
+        AtomicInteger capacity = new AtomicInteger(0);
+        List<Integer> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch countDownLatch = new CountDownLatch(3);
+
+        Runnable cancel = ((JdbcQueue<Flow>) flowQueue).receiveTransaction("consumer_group", Indexer.class, capacity::get, (dslContext, eithers) -> {
+            batches.add(eithers.size());
+            eithers.forEach(either -> countDownLatch.countDown());
+        });
+
+        flowQueue.emit("consumer_group", List.of(builder("io.kestra.f1"), builder("io.kestra.f2"), builder("io.kestra.f3")));
+
+        // nothing is fetched while the consumer is full
+        Thread.sleep(500);
+        assertThat(batches.isEmpty(), is(true));
+
+        capacity.set(1);
+        countDownLatch.await(5, TimeUnit.SECONDS);
+        cancel.run();
+
+        assertThat(countDownLatch.getCount(), is(0L));
+        assertThat(batches.stream().allMatch(size -> size == 1), is(true));
+    }
+
     private static Flow builder(String namespace) {
         return Flow.builder()
             .id(IdUtils.create())
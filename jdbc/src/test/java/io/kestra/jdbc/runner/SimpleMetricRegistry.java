@@ -0,0 +1,44 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.metrics.MetricRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A metric registry on a simple meter registry, without the prefix and the global tags of the application,
+ * for the unit tests not starting an application context.
+ */
+class SimpleMetricRegistry extends MetricRegistry {
+    private final SimpleMeterRegistry meterRegistry;
+
+    SimpleMetricRegistry() {
+        this(new SimpleMeterRegistry());
+    }
+
+    SimpleMetricRegistry(SimpleMeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Counter counter(String name, String... tags) {
+        return this.meterRegistry.counter(name, tags);
+    }
+
+    @Override
+    public <T extends Number> T gauge(String name, T number, String... tags) {
+        return this.meterRegistry.gauge(name, Tags.of(tags), number);
+    }
+
+    @Override
+    public Timer timer(String name, String... tags) {
+        return this.meterRegistry.timer(name, tags);
+    }
+
+    @Override
+    public DistributionSummary summary(String name, String... tags) {
+        return this.meterRegistry.summary(name, tags);
+    }
+}
@@ -0,0 +1,19 @@
+package io.kestra.storage.local;
+
+import io.kestra.core.storage.StorageTestSuite;
+import io.kestra.core.storages.CachedStorage;
+import io.micronaut.context.annotation.Property;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+
+@Property(name = "kestra.storage-cache.enabled", value = "true")
+class CachedLocalStorageTest extends StorageTestSuite {
+    // Launch test from StorageTestSuite, through the cache
+
+    @Test
+    void injected() {
+        assertThat(storageInterface, instanceOf(CachedStorage.class));
+    }
+}
@@ -34,6 +34,7 @@ import io.kestra.plugin.core.trigger.Webhook;
 import io.kestra.webserver.responses.BulkErrorResponse;
 import io.kestra.webserver.responses.BulkResponse;
 import io.kestra.webserver.responses.PagedResults;
+import io.kestra.webserver.services.QueueFanOutService;
 import io.kestra.webserver.utils.PageableUtils;
 import io.kestra.webserver.utils.RequestUtils;
 import io.kestra.webserver.utils.filepreview.FileRender;
@@ -145,6 +146,12 @@ public class ExecutionController {
     @Value("${kestra.server.preview.max-rows:5000}")
     private Integer maxPreviewRows;
 
+    @Value("${kestra.server.follow.buffer-size:1000}")
+    private Integer followBufferSize;
+
+    @Inject
+    private QueueFanOutService queueFanOutService;
+
     @Inject
     private TenantService tenantService;
 
@@ -618,14 +625,8 @@ public class ExecutionController {
                     if (!wait) {
                         sink.success(ExecutionResponse.fromExecution(current, executionUrl(current)));
                     } else {
-                        Runnable receive = this.executionQueue.receive(either -> {
-                            if (either.isRight()) {
-                                log.error("Unable to deserialize the execution: {}", either.getRight().getMessage());
-                                sink.success();
-                            }
-
-                            Execution item = either.getLeft();
-                            if (item.getId().equals(current.getId()) && this.isStopFollow(flow, item)) {
+                        Runnable receive = this.queueFanOutService.followExecution(current.getId(), item -> {
+                            if (this.isStopFollow(flow, item)) {
                                 sink.success(ExecutionResponse.fromExecution(item, executionUrl(item)));
                             }
                         });
@@ -1490,32 +1491,20 @@ public class ExecutionController {
                 emitter.next(Event.of(execution).id("progress"));
 
                 // consume new value
-                Runnable receive = this.executionQueue.receive(either -> {
-                    if (either.isRight()) {
-                        log.error("Unable to deserialize the execution: {}", either.getRight().getMessage());
-                        return;
-                    }
+                Runnable receive = this.queueFanOutService.followExecution(executionId, current -> {
+                    emitter.next(Event.of(current).id("progress"));
 
-                    Execution current = either.getLeft();
-                    if (current.getId().equals(executionId)) {
-
-                        emitter.next(Event.of(current).id("progress"));
-
-                        if (this.isStopFollow(flow, current)) {
-                            emitter.next(Event.of(current).id("end"));
-                            emitter.complete();
-                        }
+                    if (this.isStopFollow(flow, current)) {
+                        emitter.next(Event.of(current).id("end"));
+                        emitter.complete();
                     }
                 });
 
                 cancel.set(receive);
             }, FluxSink.OverflowStrategy.BUFFER)
-            .doOnCancel(() -> {
-                if (cancel.get() != null) {
-                    cancel.get().run();
-                }
-            })
-            .doOnComplete(() -> {
+            // slow clients are disconnected with an overflow error instead of buffering without bounds
+            .onBackpressureBuffer(followBufferSize)
+            .doFinally(signalType -> {
                 if (cancel.get() != null) {
                     cancel.get().run();
                 }
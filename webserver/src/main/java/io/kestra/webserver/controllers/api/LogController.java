@@ -6,8 +6,10 @@ import io.kestra.core.queues.QueueInterface;
 import io.kestra.core.repositories.LogRepositoryInterface;
 import io.kestra.core.tenant.TenantService;
 import io.kestra.webserver.responses.PagedResults;
+import io.kestra.webserver.services.QueueFanOutService;
 import io.kestra.webserver.utils.PageableUtils;
 import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.convert.format.Format;
 import io.micronaut.http.MediaType;
@@ -46,6 +48,12 @@ public class LogController {
     @Named(QueueFactoryInterface.WORKERTASKLOG_NAMED)
     protected QueueInterface<LogEntry> logQueue;
 
+    @Inject
+    private QueueFanOutService queueFanOutService;
+
+    @Value("${kestra.server.follow.buffer-size:1000}")
+    private Integer followBufferSize;
+
     @Inject
     private TenantService tenantService;
 
@@ -138,27 +146,17 @@ public class LogController {
                     .forEach(logEntry -> emitter.next(Event.of(logEntry).id("progress")));
 
                 // consume in realtime
-                Runnable receive = this.logQueue.receive(either -> {
-                    if (either.isRight()) {
-                        return;
-                    }
-
-                    LogEntry current = either.getLeft();
-                    if (current.getExecutionId() != null && current.getExecutionId().equals(executionId)) {
-                        if (levels.contains(current.getLevel().name())) {
-                            emitter.next(Event.of(current).id("progress"));
-                        }
+                Runnable receive = this.queueFanOutService.followLogs(executionId, current -> {
+                    if (levels.contains(current.getLevel().name())) {
+                        emitter.next(Event.of(current).id("progress"));
                     }
                 });
 
                 cancel.set(receive);
             }, FluxSink.OverflowStrategy.BUFFER)
-            .doOnCancel(() -> {
-                if (cancel.get() != null) {
-                    cancel.get().run();
-                }
-            })
-            .doOnComplete(() -> {
+            // slow clients are disconnected with an overflow error instead of buffering without bounds
+            .onBackpressureBuffer(followBufferSize)
+            .doFinally(signalType -> {
                 if (cancel.get() != null) {
                     cancel.get().run();
                 }
@@ -0,0 +1,102 @@
+package io.kestra.webserver.services;
+
+import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.utils.Either;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A single subscription on a broadcast queue shared by all the subscribers of this webserver.
+ * <p>
+ * The queue is only consumed while there is at least one subscriber, each message is deserialized once
+ * and dispatched to the subscribers registered for its key (e.g. the execution id).
+ * Subscribers are called on the queue poll thread so they must not block.
+ */
+@Slf4j
+public class QueueFanOut<T> {
+    private final QueueInterface<T> queue;
+    private final Function<T, String> keyExtractor;
+
+    private final Map<String, Set<Consumer<T>>> subscribers = new ConcurrentHashMap<>();
+
+    private Runnable cancel;
+
+    public QueueFanOut(QueueInterface<T> queue, Function<T, String> keyExtractor) {
+        this.queue = queue;
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Subscribe to the messages of the given key.
+     *
+     * @return a runnable that unsubscribes the consumer
+     */
+    public synchronized Runnable subscribe(String key, Consumer<T> consumer) {
+        this.subscribers
+            .computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
+            .add(consumer);
+
+        if (this.cancel == null) {
+            this.cancel = this.queue.receive(this::dispatch);
+        }
+
+        return () -> this.unsubscribe(key, consumer);
+    }
+
+    public int subscriberCount() {
+        return this.subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private synchronized void unsubscribe(String key, Consumer<T> consumer) {
+        this.subscribers.computeIfPresent(key, (k, consumers) -> {
+            consumers.remove(consumer);
+            return consumers.isEmpty() ? null : consumers;
+        });
+
+        if (this.subscribers.isEmpty() && this.cancel != null) {
+            this.cancel.run();
+            this.cancel = null;
+        }
+    }
+
+    private void dispatch(Either<T, DeserializationException> either) {
+        if (either.isRight()) {
+            log.error("Unable to deserialize a message: {}", either.getRight().getMessage());
+            return;
+        }
+
+        T message = either.getLeft();
+        String key = this.keyExtractor.apply(message);
+        if (key == null) {
+            return;
+        }
+
+        Set<Consumer<T>> consumers = this.subscribers.get(key);
+        if (consumers == null) {
+            return;
+        }
+
+        consumers.forEach(consumer -> {
+            try {
+                consumer.accept(message);
+            } catch (Exception e) {
+                log.warn("Unable to dispatch a message to a subscriber", e);
+            }
+        });
+    }
+
+    public synchronized void close() {
+        this.subscribers.clear();
+
+        if (this.cancel != null) {
+            this.cancel.run();
+            this.cancel = null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.kestra.webserver.services;
+
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.LogEntry;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.util.function.Consumer;
+
+/**
+ * Shared subscriptions on the execution and log queues used to follow executions,
+ * so that the number of queue consumers doesn't grow with the number of followers.
+ */
+@Singleton
+public class QueueFanOutService {
+    private final QueueFanOut<Execution> executions;
+    private final QueueFanOut<LogEntry> logs;
+
+    @Inject
+    public QueueFanOutService(
+        @Named(QueueFactoryInterface.EXECUTION_NAMED) QueueInterface<Execution> executionQueue,
+        @Named(QueueFactoryInterface.WORKERTASKLOG_NAMED) QueueInterface<LogEntry> logQueue
+    ) {
+        this.executions = new QueueFanOut<>(executionQueue, Execution::getId);
+        this.logs = new QueueFanOut<>(logQueue, LogEntry::getExecutionId);
+    }
+
+    public Runnable followExecution(String executionId, Consumer<Execution> consumer) {
+        return this.executions.subscribe(executionId, consumer);
+    }
+
+    public Runnable followLogs(String executionId, Consumer<LogEntry> consumer) {
+        return this.logs.subscribe(executionId, consumer);
+    }
+
+    @PreDestroy
+    public void close() {
+        this.executions.close();
+        this.logs.close();
+    }
+}
@@ -0,0 +1,87 @@
+package io.kestra.webserver.services;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.jdbc.JdbcTestUtils;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+class QueueFanOutServiceTest {
+    @Inject
+    @Named(QueueFactoryInterface.EXECUTION_NAMED)
+    QueueInterface<Execution> executionQueue;
+
+    @Inject
+    QueueFanOutService queueFanOutService;
+
+    @Inject
+    JdbcTestUtils jdbcTestUtils;
+
+    @BeforeEach
+    void init() {
+        jdbcTestUtils.drop();
+        jdbcTestUtils.migrate();
+    }
+
+    @Test
+    void dispatchByExecutionId() throws InterruptedException, QueueException {
+        Execution first = execution();
+        Execution second = execution();
+
+        CountDownLatch countDownLatch = new CountDownLatch(2);
+        List<Execution> firstReceived = new CopyOnWriteArrayList<>();
+        List<Execution> secondReceived = new CopyOnWriteArrayList<>();
+
+        Runnable cancelFirst = queueFanOutService.followExecution(first.getId(), execution -> {
+            firstReceived.add(execution);
+            countDownLatch.countDown();
+        });
+        Runnable cancelSecond = queueFanOutService.followExecution(second.getId(), execution -> {
+            secondReceived.add(execution);
+            countDownLatch.countDown();
+        });
+
+        // let the shared consumer start before emitting
+        Thread.sleep(500);
+
+        executionQueue.emit(first);
+        executionQueue.emit(second);
+
+        countDownLatch.await(10, TimeUnit.SECONDS);
+        cancelFirst.run();
+        cancelSecond.run();
+
+        assertThat(countDownLatch.getCount(), is(0L));
+        assertThat(firstReceived, hasSize(1));
+        assertThat(firstReceived.getFirst().getId(), is(first.getId()));
+        assertThat(secondReceived, hasSize(1));
+        assertThat(secondReceived.getFirst().getId(), is(second.getId()));
+    }
+
+    private static Execution execution() {
+        return Execution.builder()
+            .id(IdUtils.create())
+            .namespace("io.kestra.tests")
+            .flowId("fan-out")
+            .flowRevision(1)
+            .state(new State())
+            .build();
+    }
+}